@@ -0,0 +1,108 @@
+package com.autandojam.bench;
+
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.entity.Category;
+import com.autandojam.entity.InventoryItem;
+import com.autandojam.entity.User;
+import com.autandojam.entity.UserRole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+// Deterministic in-memory catalogue shared by the benchmarks, shaped like the
+// university's data: a few hundred categories, words reused across names.
+public final class CatalogueFixtures {
+    private static final String[] NOUNS = {
+            "Microscope", "Beaker", "Pipette", "Centrifuge", "Incubator", "Seeds", "Fertilizer", "Sprayer",
+            "Tractor Filter", "Soil Probe", "Thermometer", "Balance", "Flask", "Burette", "Desiccator",
+            "Hoe", "Sickle", "Irrigation Pipe", "Greenhouse Film", "Projector", "Laptop", "Printer Toner"
+    };
+    private static final String[] ADJECTIVES = {
+            "Digital", "Certified", "Hybrid", "Heavy Duty", "Portable", "Glass", "Steel", "Organic",
+            "Compound", "Laboratory", "Field", "Precision", "Wheat", "Cotton", "Rice", "Mango"
+    };
+    private static final String[] LOCATIONS = {
+            "Lab A", "Lab B", "Store 1", "Store 2", "Greenhouse", "Farm Shed", "Main Office", "Library"
+    };
+    public static final int CATEGORY_COUNT = 200;
+
+    private CatalogueFixtures() {
+    }
+
+    public static List<ItemDTO> itemDTOs(int count) {
+        List<ItemDTO> items = new ArrayList<>(count);
+        forEachItemDTO(count, items::add);
+        return items;
+    }
+
+    // generates the same catalogue as itemDTOs without holding it all in memory
+    public static void forEachItemDTO(int count, Consumer<ItemDTO> consumer) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= count; i++) {
+            int quantity = random.nextInt(500);
+            int reorderLevel = random.nextInt(50);
+            BigDecimal unitPrice = BigDecimal.valueOf(random.nextInt(100_000), 2);
+            int categoryId = 1 + random.nextInt(CATEGORY_COUNT);
+            consumer.accept(ItemDTO.builder()
+                    .itemId(i)
+                    .itemName(ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + i)
+                    .categoryId(categoryId)
+                    .categoryName("Category " + categoryId)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .totalValue(unitPrice.multiply(BigDecimal.valueOf(quantity)))
+                    .description("Issued to department " + random.nextInt(40) + " for practical classes")
+                    .location(LOCATIONS[random.nextInt(LOCATIONS.length)])
+                    .sku(String.format("SKU-%07d", i))
+                    .reorderLevel(reorderLevel)
+                    .shortfall(reorderLevel - quantity)
+                    .addedBy("System Administrator")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    // words that occur in generated names, for realistic search queries
+    public static List<String> searchTerms() {
+        List<String> terms = new ArrayList<>();
+        for (String word : NOUNS) terms.add(word.toLowerCase());
+        for (String word : ADJECTIVES) terms.add(word.substring(0, Math.min(4, word.length())).toLowerCase());
+        return terms;
+    }
+
+    public static InventoryItem item(ItemDTO dto) {
+        Category category = Category.builder()
+                .categoryId(dto.getCategoryId())
+                .categoryName(dto.getCategoryName())
+                .build();
+        User user = User.builder()
+                .userId(1)
+                .username("admin")
+                .fullName(dto.getAddedBy())
+                .role(UserRole.ADMIN)
+                .isActive(true)
+                .build();
+        return InventoryItem.builder()
+                .itemId(dto.getItemId())
+                .itemName(dto.getItemName())
+                .category(category)
+                .quantity(dto.getQuantity())
+                .unitPrice(dto.getUnitPrice())
+                .totalValue(dto.getTotalValue())
+                .description(dto.getDescription())
+                .location(dto.getLocation())
+                .sku(dto.getSku())
+                .reorderLevel(dto.getReorderLevel())
+                .shortfall(dto.getShortfall())
+                .addedBy(user)
+                .createdAt(dto.getCreatedAt())
+                .updatedAt(dto.getUpdatedAt())
+                .build();
+    }
+}
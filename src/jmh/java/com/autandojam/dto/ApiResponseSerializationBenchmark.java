@@ -0,0 +1,53 @@
+package com.autandojam.dto;
+
+import com.autandojam.bench.CatalogueFixtures;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Response body of GET /items: ApiResponse<Page<ItemDTO>>. "indented" uses the
+// app's spring.jackson settings (indent-output on), "compact" the same mapper
+// without indentation, to show what pretty-printing costs per page.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiResponseSerializationBenchmark {
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper indentedMapper;
+    private ObjectMapper compactMapper;
+    private ApiResponse<Page<ItemDTO>> response;
+
+    @Setup
+    public void setUp() {
+        indentedMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.INDENT_OUTPUT)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        compactMapper = indentedMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+
+        Page<ItemDTO> page = new PageImpl<>(CatalogueFixtures.itemDTOs(pageSize), PageRequest.of(0, pageSize), 50_000);
+        response = new ApiResponse<>(true, "Items fetched", page);
+    }
+
+    @Benchmark
+    public byte[] indented() throws JsonProcessingException {
+        return indentedMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] compact() throws JsonProcessingException {
+        return compactMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,32 @@
+package com.autandojam.entity;
+
+import com.autandojam.bench.CatalogueFixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// BigDecimal total recalculation run by every @PrePersist/@PreUpdate.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculateTotalValueBenchmark {
+    private InventoryItem item;
+    private int quantity;
+
+    @Setup
+    public void setUp() {
+        item = CatalogueFixtures.item(CatalogueFixtures.itemDTOs(1).get(0));
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalValue() {
+        // vary the quantity so the multiply can't be hoisted
+        item.setQuantity(quantity++ & 1023);
+        item.calculateTotalValue();
+        return item.getTotalValue();
+    }
+}
@@ -0,0 +1,350 @@
+package com.autandojam.loadtest;
+
+import com.autandojam.InventorySystemApplication;
+import com.autandojam.bench.CatalogueFixtures;
+import com.autandojam.search.ItemSearchIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// End-to-end load test: boots the application on an in-memory H2 database in
+// MySQL mode, seeds a catalogue, then drives a weighted mix of API calls from
+// closed-loop clients over HTTP. Latency per endpoint is recorded in
+// HdrHistograms and reported as p50/p99/p999 plus throughput.
+//
+// Run with: mvn -Pbenchmarks compile exec:exec@load-test -Dload.args="--items=100000 --clients=64"
+//
+// Options (defaults in brackets): --items [10000], --clients [32],
+// --warmup [10s], --duration [60s], --out [target/loadtest],
+// --mix [list:20,search:15,get:35,add-stock:10,reduce-stock:10,low-stock:10],
+// --threads [platform]: platform, virtual, or both comma-separated to run the
+// same load once per request-execution model and compare them. Virtual
+// threads need a Java 21 build: mvn -Pjava21,benchmarks ... --threads=platform,virtual --clients=1000
+public class LoadTestRunner {
+    private static final String DEFAULT_MIX = "list:20,search:15,get:35,add-stock:10,reduce-stock:10,low-stock:10";
+
+    enum Endpoint {
+        LIST("list"),
+        SEARCH("search"),
+        GET("get"),
+        ADD_STOCK("add-stock"),
+        REDUCE_STOCK("reduce-stock"),
+        LOW_STOCK("low-stock");
+
+        final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+
+        static Endpoint of(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) return endpoint;
+            }
+            throw new IllegalArgumentException("Unknown endpoint in --mix: " + key);
+        }
+    }
+
+    private final int items;
+    private final int clients;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Path outputDir;
+    private final String threads;
+    private final Endpoint[] weightedMix;
+    private final List<String> searchTerms = CatalogueFixtures.searchTerms();
+
+    private final Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, AtomicLong> errors = new EnumMap<>(Endpoint.class);
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private String baseUrl;
+    private String authorization;
+    private volatile boolean running = true;
+
+    LoadTestRunner(Map<String, String> options, String threads, Path outputDir) {
+        items = Integer.parseInt(options.getOrDefault("items", "10000"));
+        clients = Integer.parseInt(options.getOrDefault("clients", "32"));
+        warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        this.threads = threads;
+        this.outputDir = outputDir;
+        weightedMix = parseMix(options.getOrDefault("mix", DEFAULT_MIX));
+
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(3));
+            errors.put(endpoint, new AtomicLong());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        Path outputDir = Path.of(options.getOrDefault("out", "target/loadtest"));
+        List<String> modes = List.of(options.getOrDefault("threads", "platform").split(","));
+        for (String mode : modes) {
+            if (!mode.equals("platform") && !mode.equals("virtual")) {
+                throw new IllegalArgumentException("--threads takes platform and/or virtual, got " + mode);
+            }
+            if (mode.equals("virtual") && Runtime.version().feature() < 21) {
+                throw new IllegalStateException("Virtual threads need Java 21; build and run with -Pjava21");
+            }
+        }
+
+        if (modes.size() == 1) {
+            new LoadTestRunner(options, modes.get(0), outputDir).run();
+            return;
+        }
+
+        // same seed size, mix and client count per model, each in its own output directory
+        List<Map<String, Object>> runs = new ArrayList<>();
+        for (String mode : modes) {
+            System.out.printf("%n=== %s threads ===%n", mode);
+            runs.add(new LoadTestRunner(options, mode, outputDir.resolve(mode)).run());
+        }
+        compare(runs, outputDir);
+    }
+
+    Map<String, Object> run() throws Exception {
+        Files.createDirectories(outputDir);
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        ConfigurableApplicationContext context = SpringApplication.run(InventorySystemApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + threads
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.threads.virtual.enabled=" + threads.equals("virtual"),
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.sql.init.mode=never",
+                "--inventory.audit.journal-file=" + outputDir.resolve("audit-journal.log"),
+                "--logging.level.root=WARN",
+                // entity index names are only unique per table, which H2 rejects; harmless here
+                "--logging.level.org.hibernate.tool.schema=OFF",
+                "--logging.level.com.autandojam=INFO");
+        try {
+            long seedStart = System.nanoTime();
+            new CatalogueSeeder(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class)).seed(items);
+            // the startup build ran against the empty database
+            context.getBean(ItemSearchIndex.class).rebuild();
+            System.out.printf("Seeded and indexed %,d items in %,d ms%n",
+                    items, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            authorization = "Bearer " + login();
+
+            return drive();
+        } finally {
+            context.close();
+        }
+    }
+
+    private Map<String, Object> drive() throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(this::clientLoop, "load-client-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+
+        System.out.printf("Warming up %d clients for %s%n", clients, warmup);
+        Thread.sleep(warmup.toMillis());
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(count -> count.set(0));
+
+        System.out.printf("Measuring for %s%n", duration);
+        long measureStart = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        Map<Endpoint, Histogram> results = new EnumMap<>(Endpoint.class);
+        recorders.forEach((endpoint, recorder) -> results.put(endpoint, recorder.getIntervalHistogram()));
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+
+        running = false;
+        for (Thread thread : threads) thread.join();
+
+        return report(results, seconds);
+    }
+
+    private void clientLoop() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            Endpoint endpoint = weightedMix[random.nextInt(weightedMix.length)];
+            HttpRequest request = request(endpoint, random);
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                recorders.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                // 409 is the expected answer when a reduce finds too little stock
+                if (response.statusCode() >= 400 && response.statusCode() != 409) {
+                    errors.get(endpoint).incrementAndGet();
+                }
+            } catch (IOException e) {
+                errors.get(endpoint).incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private HttpRequest request(Endpoint endpoint, ThreadLocalRandom random) {
+        int itemId = 1 + random.nextInt(items);
+        String path = switch (endpoint) {
+            case LIST -> "/items?page=" + random.nextInt(Math.max(1, Math.min(items / 20, 500))) + "&size=20";
+            case SEARCH -> "/items/search?size=20&query=" + searchTerms.get(random.nextInt(searchTerms.size()))
+                    .replace(" ", "%20");
+            case GET -> "/items/" + itemId;
+            case ADD_STOCK -> "/items/" + itemId + "/add-stock?quantity=" + (1 + random.nextInt(5));
+            case REDUCE_STOCK -> "/items/" + itemId + "/reduce-stock?quantity=1";
+            case LOW_STOCK -> "/items/low-stock?page=0&size=20";
+        };
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", authorization);
+        boolean write = endpoint == Endpoint.ADD_STOCK || endpoint == Endpoint.REDUCE_STOCK;
+        return (write ? builder.POST(HttpRequest.BodyPublishers.noBody()) : builder.GET()).build();
+    }
+
+    private String login() throws IOException, InterruptedException {
+        String body = "{\"username\":\"" + CatalogueSeeder.USERNAME + "\",\"password\":\"" + CatalogueSeeder.PASSWORD + "\"}";
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode json = new ObjectMapper().readTree(response.body());
+        if (!json.path("success").asBoolean()) {
+            throw new IllegalStateException("Load test login failed: " + response.body());
+        }
+        return json.path("data").path("token").asText();
+    }
+
+    private Map<String, Object> report(Map<Endpoint, Histogram> results, double seconds) throws IOException {
+        List<Map<String, Object>> summary = new ArrayList<>();
+        Histogram overall = new Histogram(3);
+        long overallErrors = 0;
+        System.out.printf("%n%-14s %10s %10s %8s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms");
+
+        for (Map.Entry<Endpoint, Histogram> entry : results.entrySet()) {
+            Endpoint endpoint = entry.getKey();
+            Histogram histogram = entry.getValue();
+            long count = histogram.getTotalCount();
+            if (count == 0) continue;
+
+            overall.add(histogram);
+            overallErrors += errors.get(endpoint).get();
+            double throughput = count / seconds;
+            System.out.printf("%-14s %10d %10.1f %8d %10.2f %10.2f %10.2f %10.2f%n",
+                    endpoint.key, count, throughput, errors.get(endpoint).get(),
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+
+            try (PrintStream out = new PrintStream(outputDir.resolve(endpoint.key + ".hgrm").toFile())) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint.key);
+            row.put("requests", count);
+            row.put("throughputPerSecond", throughput);
+            row.put("errors", errors.get(endpoint).get());
+            row.put("p50Ms", millis(histogram, 50));
+            row.put("p99Ms", millis(histogram, 99));
+            row.put("p999Ms", millis(histogram, 99.9));
+            row.put("maxMs", histogram.getMaxValue() / 1000.0);
+            summary.add(row);
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("threads", threads);
+        document.put("items", items);
+        document.put("clients", clients);
+        document.put("durationSeconds", seconds);
+        document.put("requests", overall.getTotalCount());
+        document.put("throughputPerSecond", overall.getTotalCount() / seconds);
+        document.put("errors", overallErrors);
+        document.put("p50Ms", millis(overall, 50));
+        document.put("p99Ms", millis(overall, 99));
+        document.put("p999Ms", millis(overall, 99.9));
+        document.put("endpoints", summary);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(outputDir.resolve("summary.json").toFile(), document);
+        System.out.printf("%nHistograms and summary.json written to %s%n", outputDir.toAbsolutePath());
+        return document;
+    }
+
+    private static void compare(List<Map<String, Object>> runs, Path outputDir) throws IOException {
+        System.out.printf("%n%-10s %8s %10s %10s %8s %10s %10s %10s%n",
+                "threads", "clients", "requests", "req/s", "errors", "p50 ms", "p99 ms", "p999 ms");
+        for (Map<String, Object> run : runs) {
+            System.out.printf("%-10s %8d %10d %10.1f %8d %10.2f %10.2f %10.2f%n",
+                    run.get("threads"), run.get("clients"), run.get("requests"), run.get("throughputPerSecond"),
+                    run.get("errors"), run.get("p50Ms"), run.get("p99Ms"), run.get("p999Ms"));
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Map<String, Object> run : runs) {
+            Map<String, Object> row = new LinkedHashMap<>(run);
+            row.remove("endpoints");
+            rows.add(row);
+        }
+        Files.createDirectories(outputDir);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(outputDir.resolve("comparison.json").toFile(), rows);
+        System.out.printf("%ncomparison.json written to %s%n", outputDir.toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    // expands "list:20,get:35" into a lookup array so picking an endpoint is one random index
+    private static Endpoint[] parseMix(String mix) {
+        List<Endpoint> expanded = new ArrayList<>();
+        for (String part : mix.split(",")) {
+            String[] keyAndWeight = part.trim().split(":");
+            Endpoint endpoint = Endpoint.of(keyAndWeight[0]);
+            int weight = Integer.parseInt(keyAndWeight[1]);
+            for (int i = 0; i < weight; i++) expanded.add(endpoint);
+        }
+        if (expanded.isEmpty()) throw new IllegalArgumentException("--mix has no weights");
+        return expanded.toArray(new Endpoint[0]);
+    }
+}
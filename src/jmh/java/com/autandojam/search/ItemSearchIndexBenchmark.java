@@ -0,0 +1,46 @@
+package com.autandojam.search;
+
+import com.autandojam.bench.CatalogueFixtures;
+import com.autandojam.event.InventoryItemEvent;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Ranked search over the in-memory index, loaded through the same change
+// events the app uses (no database needed).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemSearchIndexBenchmark {
+    @Param({"10000", "100000"})
+    private int catalogueSize;
+
+    // prefix of a common word, two-word AND, infix (trigram path), sku prefix
+    @Param({"micro", "digital balance", "trifuge", "sku-00012"})
+    private String query;
+
+    private ItemSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new ItemSearchIndex();
+        CatalogueFixtures.itemDTOs(catalogueSize)
+                .forEach(item -> index.onItemChanged(InventoryItemEvent.created(item)));
+    }
+
+    @Benchmark
+    public Page<Integer> searchFirstPage() {
+        return index.search(query, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public List<SearchHit> searchAfterFirstPage() {
+        return index.searchAfter(query, null, null, 20);
+    }
+}
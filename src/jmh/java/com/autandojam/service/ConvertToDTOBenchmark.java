@@ -0,0 +1,44 @@
+package com.autandojam.service;
+
+import com.autandojam.bench.CatalogueFixtures;
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.entity.InventoryItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO mapping used on every create/update response.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertToDTOBenchmark {
+    private InventoryService inventoryService;
+    private InventoryItem item;
+    private List<InventoryItem> page;
+
+    @Setup
+    public void setUp() {
+        // convertToDTO touches none of the injected collaborators
+        inventoryService = new InventoryService();
+        page = CatalogueFixtures.itemDTOs(100).stream().map(CatalogueFixtures::item).toList();
+        item = page.get(0);
+    }
+
+    @Benchmark
+    public ItemDTO convertOne() {
+        return inventoryService.convertToDTO(item);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(100)
+    public void convertPageOf100(Blackhole blackhole) {
+        for (InventoryItem each : page) {
+            blackhole.consume(inventoryService.convertToDTO(each));
+        }
+    }
+}
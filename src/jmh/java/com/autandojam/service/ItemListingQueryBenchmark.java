@@ -0,0 +1,87 @@
+package com.autandojam.service;
+
+import com.autandojam.InventorySystemApplication;
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.loadtest.CatalogueSeeder;
+import com.autandojam.repository.InventoryItemRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// One page of GET /items: the ItemDTO constructor projection against loading
+// InventoryItem entities (eager category and addedBy) and mapping them with
+// convertToDTO. Runs the real repository on in-memory H2 in MySQL mode, so
+// network round trips are left out. Add -prof gc for allocation per page.
+//
+// Run with: mvn -Pbenchmarks compile exec:exec -Djmh.args="ItemListingQueryBenchmark -prof gc"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemListingQueryBenchmark {
+    private static final int CATALOGUE_SIZE = 10000;
+    // a page past the start, like a user paging through the list
+    private static final int PAGE_NUMBER = 5;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private InventoryItemRepository itemRepository;
+    private InventoryService inventoryService;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = SpringApplication.run(InventorySystemApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:listing-bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.sql.init.mode=never",
+                "--inventory.audit.journal-file=target/listing-bench-audit-journal.log",
+                "--logging.level.root=WARN",
+                // entity index names are only unique per table, which H2 rejects; harmless here
+                "--logging.level.org.hibernate.tool.schema=OFF");
+
+        new CatalogueSeeder(context.getBean(JdbcTemplate.class), context.getBean(PasswordEncoder.class))
+                .seed(CATALOGUE_SIZE);
+        itemRepository = context.getBean(InventoryItemRepository.class);
+        inventoryService = context.getBean(InventoryService.class);
+
+        // both variants run the way the service does, in a read-only transaction
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ItemDTO> projection() {
+        return readOnly.execute(status -> itemRepository.findAllItemDTOs(PageRequest.of(PAGE_NUMBER, pageSize)));
+    }
+
+    @Benchmark
+    public Page<ItemDTO> entitiesThenConvert() {
+        return readOnly.execute(status -> itemRepository.findAll(PageRequest.of(PAGE_NUMBER, pageSize))
+                .map(inventoryService::convertToDTO));
+    }
+}
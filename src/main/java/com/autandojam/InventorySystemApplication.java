@@ -2,18 +2,17 @@ package com.autandojam;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.UserDetailsServiceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// users authenticate with JWTs issued by /auth/login, so no in-memory user is needed.
+// R2DBC is only used by the reactive items API, which builds its own pool;
+// the auto-configured ConnectionFactory would replace the JPA DataSource.
+@SpringBootApplication(exclude = {UserDetailsServiceAutoConfiguration.class, R2dbcAutoConfiguration.class})
+@EnableScheduling
 public class InventorySystemApplication {
     public static void main(String[] args) {
         SpringApplication.run(InventorySystemApplication.class, args);
     }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
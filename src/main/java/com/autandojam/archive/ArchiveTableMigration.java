@@ -0,0 +1,60 @@
+package com.autandojam.archive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Production runs ddl-auto update and never runs schema.sql, and Hibernate
+// can't declare a row format, so the archive tables come out uncompressed.
+// On MySQL this creates them from db/archive-tables.sql if they're missing
+// and rebuilds any that aren't ROW_FORMAT=COMPRESSED yet. Both steps are
+// no-ops once applied, so it runs on every startup.
+@Component
+public class ArchiveTableMigration {
+    private static final Logger log = LoggerFactory.getLogger(ArchiveTableMigration.class);
+
+    private static final String SCRIPT = "db/archive-tables.sql";
+    private static final List<String> ARCHIVE_TABLES = List.of("stock_transactions_archive", "activity_logs_archive");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        // the DDL is MySQL's; embedded databases get the tables from the entities
+        if (!"MySQL".equalsIgnoreCase(database)) return;
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) c -> {
+            ScriptUtils.executeSqlScript(c, new ClassPathResource(SCRIPT));
+            return null;
+        });
+        ARCHIVE_TABLES.forEach(this::compress);
+    }
+
+    private void compress(String table) {
+        String rowFormat = jdbcTemplate.queryForObject(
+                "SELECT row_format FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                String.class, table);
+        if ("Compressed".equalsIgnoreCase(rowFormat)) return;
+
+        log.info("Rebuilding {} with ROW_FORMAT=COMPRESSED (was {})", table, rowFormat);
+        try {
+            // online rebuild: reads and archive writes carry on meanwhile
+            jdbcTemplate.execute("ALTER TABLE " + table + " ROW_FORMAT=COMPRESSED, ALGORITHM=INPLACE, LOCK=NONE");
+        } catch (DataAccessException e) {
+            // e.g. innodb_file_per_table off; archiving still works uncompressed
+            log.warn("Could not compress {}: {}", table, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.autandojam.archive;
+
+import com.autandojam.repository.ArchiveBatchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BiFunction;
+
+// Moves stock_transactions and activity_logs rows past their retention into
+// the *_archive tables, oldest first, one short transaction per chunk so the
+// live tables stay small without long-held locks. LedgerHistoryRepository
+// and StockLedgerService read both sides, so callers see one history.
+// Every instance runs the schedule; chunks are claimed with SKIP LOCKED (see
+// ArchiveBatchRepository), so concurrent runs split the backlog between them.
+@Component
+public class LedgerArchiver {
+    private static final Logger log = LoggerFactory.getLogger(LedgerArchiver.class);
+
+    @Value("${inventory.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.archive.stock-transactions-after:365d}")
+    private Duration stockTransactionRetention;
+
+    @Value("${inventory.archive.activity-logs-after:90d}")
+    private Duration activityLogRetention;
+
+    @Value("${inventory.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Autowired
+    private ArchiveBatchRepository archiveBatchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${inventory.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        if (!enabled) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        int transactions = drain("stock_transactions", now.minus(stockTransactionRetention),
+                archiveBatchRepository::archiveStockTransactions);
+        int logs = drain("activity_logs", now.minus(activityLogRetention),
+                archiveBatchRepository::archiveActivityLogs);
+
+        if (transactions > 0 || logs > 0) {
+            log.info("Archived {} stock transactions and {} activity logs", transactions, logs);
+        }
+    }
+
+    private int drain(String table, LocalDateTime cutoff, BiFunction<LocalDateTime, Integer, Integer> chunk) {
+        int total = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> chunk.apply(cutoff, chunkSize));
+            int count = moved == null ? 0 : moved;
+            total += count;
+            meterRegistry.counter("inventory.archive.rows", "table", table).increment(count);
+            if (count < chunkSize) return total;
+        }
+    }
+}
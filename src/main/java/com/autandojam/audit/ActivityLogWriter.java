@@ -0,0 +1,568 @@
+package com.autandojam.audit;
+
+import com.autandojam.entity.ActivityLog;
+import com.autandojam.entity.User;
+import com.autandojam.repository.StockBatchRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Takes activity_logs inserts off the business transaction. Just before the
+// caller's transaction commits, its logs are appended to a local journal file
+// (and forced to disk with journal-fsync); once it has committed they are
+// queued, and a background thread inserts the queue in JDBC batches and marks
+// the flushed sequence numbers in the journal. A rollback marks its entries
+// flushed straight away. Anything journaled but never marked is replayed on
+// the next start, so delivery is at-least-once: a crash between the append
+// and the commit can replay a log for a change that never committed. A row
+// the database rejects outright is moved to a dead-letter file instead of
+// blocking the rest, and an unreadable journal line to a .corrupt file.
+@Component
+public class ActivityLogWriter {
+    private static final Logger log = LoggerFactory.getLogger(ActivityLogWriter.class);
+    private static final String FLUSHED_MARKER = "#flushed ";
+
+    @Value("${inventory.audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${inventory.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.audit.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    @Value("${inventory.audit.offer-timeout:1s}")
+    private Duration offerTimeout;
+
+    @Value("${inventory.audit.journal-file:data/audit-journal.log}")
+    private Path journalFile;
+
+    @Value("${inventory.audit.journal-fsync:true}")
+    private boolean journalFsync;
+
+    @Value("${inventory.audit.max-flush-attempts:3}")
+    private int maxFlushAttempts;
+
+    @Value("${inventory.audit.dead-letter-file:data/audit-dead-letter.log}")
+    private Path deadLetterFile;
+
+    @Autowired
+    private StockBatchRepository stockBatchRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final ObjectMapper journalMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ReentrantLock journalLock = new ReentrantLock();
+    private final AtomicLong sequence = new AtomicLong();
+    // journal lines appended, and how many of them are known to be on disk
+    private final AtomicLong appended = new AtomicLong();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private long forcedThrough;
+    // journaled entries not yet marked flushed; the journal is truncated when it drops to zero
+    private final AtomicLong unflushed = new AtomicLong();
+    // journaled entries that found the queue full; read back once it drains
+    private final NavigableSet<Long> deferred = new ConcurrentSkipListSet<>();
+
+    private BlockingQueue<PendingLog> queue;
+    private FileChannel journal;
+    private TransactionTemplate transactionTemplate;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private Counter writtenCounter;
+    private Counter deferredCounter;
+    private Counter droppedCounter;
+    private Counter deadLetteredCounter;
+    private Timer flushTimer;
+
+
+    // --------------------- LIFECYCLE -------------------------
+
+    @PostConstruct
+    public void start() throws IOException {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        writtenCounter = meterRegistry.counter("audit.log.written");
+        deferredCounter = meterRegistry.counter("audit.log.deferred");
+        droppedCounter = meterRegistry.counter("audit.log.dropped");
+        deadLetteredCounter = meterRegistry.counter("audit.log.dead.lettered");
+
+        if (journalFile.getParent() != null) Files.createDirectories(journalFile.getParent());
+        replayJournal();
+        journal = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+
+        flushTimer = meterRegistry.timer("audit.log.flush");
+        meterRegistry.gauge("audit.log.queue.size", queue, BlockingQueue::size);
+        meterRegistry.gauge("audit.log.lag.seconds", queue, q -> {
+            PendingLog oldest = q.peek();
+            return oldest == null ? 0 : (System.nanoTime() - oldest.enqueuedAt) / 1e9;
+        });
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "activity-log-writer");
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        running = false;
+        writerThread.interrupt();
+        writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+
+    // --------------------- SUBMIT -------------------------
+
+    public void submit(ActivityLog activityLog) {
+        submitAll(Collections.singletonList(activityLog));
+    }
+
+    // Inside a transaction the logs are journaled before commit and only handed
+    // over after it, so a rolled-back change never leaves an audit row behind.
+    public void submitAll(List<ActivityLog> logs) {
+        if (logs.isEmpty()) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private List<PendingLog> journaled = List.of();
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    journaled = journal(logs);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        markFlushed(journaled);
+                    } else {
+                        // the caller still holds its connection here, so never wait on a full queue
+                        journaled.forEach(pending -> enqueue(pending, false));
+                    }
+                }
+            });
+        } else {
+            journal(logs).forEach(pending -> enqueue(pending, true));
+        }
+    }
+
+    // appends the logs to the journal; with journal-fsync they are on disk on return
+    private List<PendingLog> journal(List<ActivityLog> logs) {
+        List<PendingLog> pending = new ArrayList<>(logs.size());
+        for (ActivityLog activityLog : logs) {
+            if (activityLog.getCreatedAt() == null) activityLog.setCreatedAt(LocalDateTime.now());
+            long seq;
+            try {
+                seq = appendToJournal(activityLog);
+            } catch (IOException e) {
+                log.error("Could not journal activity log, queueing without durability", e);
+                seq = 0;
+            }
+            pending.add(new PendingLog(seq, activityLog, System.nanoTime()));
+        }
+
+        try {
+            forceJournal();
+        } catch (IOException e) {
+            log.error("Could not force activity log journal to disk", e);
+        }
+        return pending;
+    }
+
+    private void enqueue(PendingLog pending, boolean mayBlock) {
+        if (pending.seq == 0) {
+            // not durable anywhere: try the queue, and count it lost if that is full too
+            if (!queue.offer(pending)) droppedCounter.increment();
+            return;
+        }
+
+        try {
+            // outside a transaction a full queue pushes back on the caller for up to offer-timeout
+            boolean queued = mayBlock
+                    ? queue.offer(pending, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                    : queue.offer(pending);
+            // still safe in the journal; the writer reads it back later
+            if (!queued) defer(pending.seq);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            defer(pending.seq);
+        }
+    }
+
+    private void defer(long seq) {
+        deferred.add(seq);
+        deferredCounter.increment();
+    }
+
+
+    // --------------------- WRITER -------------------------
+
+    private void drainLoop() {
+        List<PendingLog> batch = new ArrayList<>(batchSize);
+        int failedAttempts = 0;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    if (!deferred.isEmpty() && queue.isEmpty()) requeueDeferred();
+                    PendingLog first = queue.poll(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    batch.add(first);
+                    // give a burst up to flush-interval to fill the batch
+                    long deadline = System.nanoTime() + flushInterval.toNanos();
+                    while (batch.size() < batchSize) {
+                        PendingLog next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                        if (next == null) break;
+                        batch.add(next);
+                    }
+                }
+
+                flush(batch);
+                batch.clear();
+                failedAttempts = 0;
+            } catch (InterruptedException e) {
+                // stop() interrupts to cut the wait short; keep draining what is queued
+                queue.drainTo(batch, batchSize - batch.size());
+            } catch (RuntimeException e) {
+                if (++failedAttempts < maxFlushAttempts) {
+                    log.error("Activity log flush of {} entries failed, retrying", batch.size(), e);
+                } else {
+                    // one bad row fails the whole batch; find it instead of retrying forever
+                    log.error("Activity log flush of {} entries failed {} times, writing them one by one",
+                            batch.size(), failedAttempts, e);
+                    flushRowByRow(batch);
+                    failedAttempts = 0;
+                }
+                if (!running) break;
+                if (!batch.isEmpty()) sleepQuietly(flushInterval.toMillis() * 5);
+            }
+        }
+    }
+
+    private void flush(List<PendingLog> batch) {
+        if (batch.isEmpty()) return;
+
+        List<ActivityLog> logs = new ArrayList<>(batch.size());
+        batch.forEach(pending -> logs.add(pending.activityLog));
+
+        flushTimer.record(() -> transactionTemplate.executeWithoutResult(
+                status -> stockBatchRepository.insertActivityLogs(logs)));
+        writtenCounter.increment(batch.size());
+        markFlushed(batch);
+    }
+
+    // Written and dead-lettered rows leave the batch. Any other failure means
+    // the database itself is unavailable, so the rest stays for the next retry.
+    private void flushRowByRow(List<PendingLog> batch) {
+        int done = 0;
+        try {
+            for (PendingLog pending : batch) {
+                insertOrDeadLetter(pending.seq, pending.activityLog);
+                done++;
+            }
+        } catch (RuntimeException e) {
+            log.error("Activity log flush still failing, {} entries left to retry", batch.size() - done, e);
+        }
+
+        List<PendingLog> finished = batch.subList(0, done);
+        markFlushed(finished);
+        finished.clear();
+    }
+
+    private void insertOrDeadLetter(long seq, ActivityLog activityLog) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> stockBatchRepository.insertActivityLogs(List.of(activityLog)));
+            writtenCounter.increment();
+        } catch (DataIntegrityViolationException e) {
+            deadLetter(seq, activityLog, e);
+        }
+    }
+
+    private void deadLetter(long seq, ActivityLog activityLog, DataIntegrityViolationException cause) {
+        deadLetteredCounter.increment();
+        String line;
+        try {
+            line = journalMapper.writeValueAsString(JournalEntry.of(seq, activityLog));
+        } catch (IOException e) {
+            line = activityLog.toString();
+        }
+
+        try {
+            Files.writeString(deadLetterFile, line + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log.warn("Activity log {} rejected by the database, moved to {}: {}",
+                    seq, deadLetterFile, cause.getMostSpecificCause().getMessage());
+        } catch (IOException e) {
+            // the log line is the only copy left
+            log.error("Activity log rejected by the database and not dead-lettered: {}", line, e);
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    // --------------------- JOURNAL -------------------------
+
+    private long appendToJournal(ActivityLog activityLog) throws IOException {
+        journalLock.lock();
+        try {
+            long seq = sequence.incrementAndGet();
+            writeJournalLine(journalMapper.writeValueAsString(JournalEntry.of(seq, activityLog)));
+            appended.incrementAndGet();
+            unflushed.incrementAndGet();
+            return seq;
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private void markFlushed(List<PendingLog> batch) {
+        journalLock.lock();
+        try {
+            StringBuilder marker = new StringBuilder(FLUSHED_MARKER);
+            int journaled = 0;
+            for (PendingLog pending : batch) {
+                if (pending.seq == 0) continue;
+                if (journaled++ > 0) marker.append(',');
+                marker.append(pending.seq);
+            }
+            if (journaled == 0) return;
+
+            // everything journaled is now in the database: start the file over
+            if (unflushed.addAndGet(-journaled) == 0) {
+                journal.truncate(0);
+            } else {
+                writeJournalLine(marker.toString());
+            }
+        } catch (IOException e) {
+            // the rows are committed; at worst they are written again on replay
+            log.warn("Could not mark activity logs as flushed in journal", e);
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    // Deferred entries exist only in the journal. Reading them back in sequence
+    // order, as far as the queue has room, gets them flushed (and the journal
+    // truncated) without waiting for a restart.
+    private void requeueDeferred() {
+        int room = queue.remainingCapacity();
+        List<PendingLog> found = new ArrayList<>();
+        Set<Long> missing;
+        boolean scannedAll;
+
+        journalLock.lock();
+        // these were journaled before the scan, so a full scan must find them
+        missing = new HashSet<>(deferred);
+        try (BufferedReader reader = Files.newBufferedReader(journalFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null && found.size() < room) {
+                if (line.isBlank() || line.startsWith(FLUSHED_MARKER)) continue;
+                try {
+                    JournalEntry entry = journalMapper.readValue(line, JournalEntry.class);
+                    if (missing.remove(entry.getSeq())) {
+                        found.add(new PendingLog(entry.getSeq(), entry.toActivityLog(), System.nanoTime()));
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable activity log journal line");
+                }
+            }
+            scannedAll = line == null;
+        } catch (IOException e) {
+            log.warn("Could not read deferred activity logs back from the journal", e);
+            return;
+        } finally {
+            journalLock.unlock();
+        }
+
+        for (PendingLog pending : found) {
+            if (!queue.offer(pending)) return;
+            deferred.remove(pending.seq);
+        }
+        if (scannedAll && !missing.isEmpty()) {
+            // unreadable journal lines: stop waiting for them
+            log.warn("{} deferred activity logs could not be read back from the journal", missing.size());
+            missing.forEach(seq -> {
+                if (deferred.remove(seq)) unflushed.decrementAndGet();
+            });
+        }
+    }
+
+    private void writeJournalLine(String line) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) journal.write(bytes);
+    }
+
+    // Group commit: one force covers every line appended before it started, so
+    // concurrent committers mostly find their lines already on disk. Flushed
+    // markers are not forced; losing one only means a duplicate on replay.
+    private void forceJournal() throws IOException {
+        if (!journalFsync) return;
+        long target = appended.get();
+        forceLock.lock();
+        try {
+            if (forcedThrough >= target) return;
+            long through = appended.get();
+            journal.force(false);
+            forcedThrough = through;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalFile)) return;
+
+        Map<Long, JournalEntry> entries = new LinkedHashMap<>();
+        Set<Long> flushed = new HashSet<>();
+        List<String> unreadable = new ArrayList<>();
+        long maxSeq = 0;
+        // malformed UTF-8 (a torn multi-byte character) is replaced, not thrown
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Files.newInputStream(journalFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    if (line.startsWith(FLUSHED_MARKER)) {
+                        for (String seq : line.substring(FLUSHED_MARKER.length()).split(",")) {
+                            flushed.add(Long.parseLong(seq));
+                        }
+                    } else {
+                        JournalEntry entry = journalMapper.readValue(line, JournalEntry.class);
+                        if (entry == null || entry.getSeq() <= 0) throw new IllegalArgumentException("no sequence");
+                        entries.put(entry.getSeq(), entry);
+                        maxSeq = Math.max(maxSeq, entry.getSeq());
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // e.g. a torn last line from a crash mid-append
+                    unreadable.add(line);
+                }
+            }
+        }
+        if (!unreadable.isEmpty()) quarantine(unreadable);
+        sequence.set(maxSeq);
+
+        List<JournalEntry> pending = new ArrayList<>();
+        entries.forEach((seq, entry) -> {
+            if (!flushed.contains(seq)) pending.add(entry);
+        });
+
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<JournalEntry> chunk = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            List<ActivityLog> logs = chunk.stream().map(JournalEntry::toActivityLog).toList();
+            try {
+                transactionTemplate.executeWithoutResult(status -> stockBatchRepository.insertActivityLogs(logs));
+            } catch (DataIntegrityViolationException e) {
+                // a rejected row must not stop the application from starting
+                for (int i = 0; i < chunk.size(); i++) {
+                    insertOrDeadLetter(chunk.get(i).getSeq(), logs.get(i));
+                }
+            }
+        }
+        if (!pending.isEmpty()) log.info("Replayed {} journaled activity logs", pending.size());
+
+        Files.write(journalFile, new byte[0]);
+    }
+
+    // keeps unreadable lines for inspection instead of failing startup on them
+    private void quarantine(List<String> lines) {
+        Path corrupt = journalFile.resolveSibling(journalFile.getFileName() + ".corrupt");
+        try {
+            Files.write(corrupt, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log.warn("Skipped {} unreadable activity log journal lines, moved to {}", lines.size(), corrupt);
+        } catch (IOException e) {
+            log.error("Skipped {} unreadable activity log journal lines and could not quarantine them: {}",
+                    lines.size(), lines, e);
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class PendingLog {
+        private final long seq; // 0 when the entry could not be journaled
+        private final ActivityLog activityLog;
+        private final long enqueuedAt;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    private static class JournalEntry {
+        private long seq;
+        private Integer userId;
+        private String action;
+        private String entityType;
+        private Integer entityId;
+        private String description;
+        private String ipAddress;
+        private LocalDateTime createdAt;
+
+        static JournalEntry of(long seq, ActivityLog activityLog) {
+            return new JournalEntry(seq, activityLog.getUser().getUserId(), activityLog.getAction(),
+                    activityLog.getEntityType(), activityLog.getEntityId(), activityLog.getDescription(),
+                    activityLog.getIpAddress(), activityLog.getCreatedAt());
+        }
+
+        ActivityLog toActivityLog() {
+            return ActivityLog.builder()
+                    .user(User.builder().userId(userId).build())
+                    .action(action)
+                    .entityType(entityType)
+                    .entityId(entityId)
+                    .description(description)
+                    .ipAddress(ipAddress)
+                    .createdAt(createdAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.autandojam.cache;
+
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.event.InventoryItemEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Read-through cache for GET /items/{id}. Entries are dropped after the
+// changing transaction commits. Loads run outside Caffeine's compute (its
+// synchronized section would pin a virtual thread for the query), so a load
+// that overlaps an invalidation takes its result back out again and a read
+// that started before the commit can't leave the old value behind.
+@Component
+public class ItemCache {
+    @Value("${inventory.cache.items.max-size:10000}")
+    private long maxSize;
+
+    @Value("${inventory.cache.items.ttl:10m}")
+    private Duration ttl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Integer, ItemDTO> cache;
+
+    // bumped by every invalidation
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items");
+    }
+
+    // returns null (and caches nothing) when the loader finds no item
+    public ItemDTO get(Integer itemId, Function<Integer, ItemDTO> loader) {
+        ItemDTO cached = cache.getIfPresent(itemId);
+        if (cached != null) return cached;
+
+        long started = generation.get();
+        ItemDTO loaded = loader.apply(itemId);
+        if (loaded != null) {
+            cache.put(itemId, loaded);
+            if (generation.get() != started) {
+                cache.asMap().remove(itemId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidate(Integer itemId) {
+        generation.incrementAndGet();
+        cache.invalidate(itemId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemEvent event) {
+        if (event.getType() != InventoryItemEvent.Type.CREATED) {
+            invalidate(event.getItemId());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.autandojam.cache;
+
+import com.autandojam.entity.User;
+import com.autandojam.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Detached User rows keyed by id, for stamping addedBy / performedBy on writes
+// without a users query per request. Only the id is needed for the foreign key;
+// the rest is read for DTOs (fullName), so a short TTL is enough staleness.
+@Component
+public class UserCache {
+    @Value("${inventory.cache.users.max-size:1000}")
+    private long maxSize;
+
+    @Value("${inventory.cache.users.ttl:5m}")
+    private Duration ttl;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<Integer, User> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+    }
+
+    // null when the user no longer exists. Loaded outside the cache rather
+    // than through a loader: Caffeine runs loaders inside ConcurrentHashMap's
+    // synchronized compute, which would pin a virtual thread for the query.
+    // Two requests missing at once both query, which is harmless.
+    public User get(Integer userId) {
+        if (userId == null) return null;
+        User user = cache.getIfPresent(userId);
+        if (user == null) {
+            user = userRepository.findById(userId).orElse(null);
+            if (user != null) cache.put(userId, user);
+        }
+        return user;
+    }
+
+    public void invalidate(Integer userId) {
+        cache.invalidate(userId);
+    }
+}
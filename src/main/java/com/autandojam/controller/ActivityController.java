@@ -0,0 +1,34 @@
+package com.autandojam.controller;
+
+import com.autandojam.dto.ActivityLogDTO;
+import com.autandojam.dto.ApiResponse;
+import com.autandojam.security.AuthenticatedUser;
+import com.autandojam.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/activity")
+@CrossOrigin(origins = "*")
+public class ActivityController {
+    @Autowired
+    private UserService userService;
+
+    // newest first, including entries the archiver has moved out of activity_logs
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyActivity(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "User not found", null));
+        }
+        Page<ActivityLogDTO> activity = userService.getActivity(principal.getUserId(), PageRequest.of(page, size));
+        return ResponseEntity.ok(new ApiResponse<>(true, "Activity fetched", activity));
+    }
+}
@@ -6,10 +6,21 @@ import com.autandojam.dto.LoginResponse;
 import com.autandojam.entity.User;
 import com.autandojam.service.UserService;
 import com.autandojam.security.JwtProvider;
+import com.autandojam.security.LoginAttemptThrottle;
+import com.autandojam.security.PasswordVerifier;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
@@ -20,31 +31,74 @@ public class AuthController {
     @Autowired
     private JwtProvider jwtProvider;
 
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private LoginAttemptThrottle loginAttemptThrottle;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Counter loginRejections;
+    private Counter loginBusy;
+
+    @PostConstruct
+    public void initMetrics() {
+        loginRejections = meterRegistry.counter("auth.login.rejected", "reason", "locked");
+        loginBusy = meterRegistry.counter("auth.login.rejected", "reason", "busy");
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest request) {
-        User user = userService.findByUsername(request.getUsername()).orElse(null);
-        
-        if (user == null || !userService.validatePassword(request.getPassword(), user.getPassword())) {
-            return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "Invalid credentials", null));
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest request) {
+        Duration lockedFor = loginAttemptThrottle.lockedFor(request.getUsername());
+        if (!lockedFor.isZero()) {
+            loginRejections.increment();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, lockedFor.toSeconds())))
+                    .body(new ApiResponse<>(false, "Too many failed attempts, try again later", null)));
         }
 
-        if (!user.getIsActive()) {
-            return ResponseEntity.badRequest()
-                    .body(new ApiResponse<>(false, "User account is inactive", null));
+        User user = userService.findByUsername(request.getUsername()).orElse(null);
+
+        // BCrypt runs on the password pool; this request thread is released meanwhile.
+        // Unknown users get a dummy check so they fail as slowly as a wrong password.
+        CompletableFuture<Boolean> passwordCheck;
+        try {
+            passwordCheck = user == null
+                    ? passwordVerifier.matchesUnknownUser(request.getPassword())
+                    : passwordVerifier.matches(user, request.getPassword());
+        } catch (RejectedExecutionException e) {
+            loginBusy.increment();
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ApiResponse<>(false, "Login service is busy, please retry", null)));
         }
 
-        String token = jwtProvider.generateToken(user.getUserId(), user.getUsername(), user.getRole().toString());
-        
-        LoginResponse response = LoginResponse.builder()
-                .token(token)
-                .username(user.getUsername())
-                .email(user.getEmail())
-                .fullName(user.getFullName())
-                .role(user.getRole().toString())
-                .build();
-
-        return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", response));
+        return passwordCheck.thenApply(valid -> {
+            if (!valid) {
+                loginAttemptThrottle.recordFailure(request.getUsername());
+                return invalidCredentials();
+            }
+            loginAttemptThrottle.recordSuccess(request.getUsername());
+
+            if (!user.getIsActive()) {
+                return ResponseEntity.badRequest()
+                        .body(new ApiResponse<>(false, "User account is inactive", null));
+            }
+
+            String token = jwtProvider.generateToken(user.getUserId(), user.getUsername(), user.getRole().toString());
+
+            LoginResponse response = LoginResponse.builder()
+                    .token(token)
+                    .username(user.getUsername())
+                    .email(user.getEmail())
+                    .fullName(user.getFullName())
+                    .role(user.getRole().toString())
+                    .build();
+
+            return ResponseEntity.ok(new ApiResponse<>(true, "Login successful", response));
+        });
     }
 
     @GetMapping("/validate")
@@ -64,4 +118,9 @@ public class AuthController {
                     .body(new ApiResponse<>(false, "Invalid or expired token", null));
         }
     }
+
+    private ResponseEntity<?> invalidCredentials() {
+        return ResponseEntity.badRequest()
+                .body(new ApiResponse<>(false, "Invalid credentials", null));
+    }
 }
@@ -1,20 +1,47 @@
 package com.autandojam.controller;
 
+import com.autandojam.cache.UserCache;
 import com.autandojam.dto.ApiResponse;
+import com.autandojam.dto.BulkStockRequest;
+import com.autandojam.dto.BulkStockResult;
+import com.autandojam.dto.CursorPage;
+import com.autandojam.dto.ImportJobDTO;
 import com.autandojam.dto.ItemDTO;
+import com.autandojam.dto.StockLevelDTO;
+import com.autandojam.dto.StockTransactionDTO;
+import com.autandojam.dto.StockUpdateResult;
 import com.autandojam.entity.InventoryItem;
+import com.autandojam.entity.SummaryDimension;
 import com.autandojam.entity.User;
 import com.autandojam.service.InventoryService;
-import com.autandojam.service.UserService;
+import com.autandojam.service.ItemImportService;
+import com.autandojam.service.InventorySummaryService;
+import com.autandojam.service.StockLedgerService;
+import com.autandojam.security.AuthenticatedUser;
+import com.autandojam.service.ItemExportService;
+import com.autandojam.stream.StockEventBroadcaster;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/items")
@@ -24,7 +51,22 @@ public class InventoryController {
     private InventoryService inventoryService;
 
     @Autowired
-    private UserService userService;
+    private UserCache userCache;
+
+    @Autowired
+    private ItemExportService exportService;
+
+    @Autowired
+    private StockEventBroadcaster stockEventBroadcaster;
+
+    @Autowired
+    private InventorySummaryService summaryService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ItemImportService importService;
 
     @GetMapping
     public ResponseEntity<?> getAllItems(
@@ -45,6 +87,87 @@ public class InventoryController {
         return ResponseEntity.ok(new ApiResponse<>(true, "Search completed", items));
     }
 
+    @GetMapping("/category/{categoryId}")
+    public ResponseEntity<?> getItemsByCategory(
+            @PathVariable Integer categoryId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        Page<ItemDTO> items = inventoryService.getItemsByCategory(categoryId, pageable);
+        return ResponseEntity.ok(new ApiResponse<>(true, "Items fetched", items));
+    }
+
+    // Cursor-based alternatives to the paged listings: no OFFSET scan and no
+    // COUNT(*), so deep pages cost the same as the first one.
+
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollItems(
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        if (!sort.equals("id") && !sort.equals("name")) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "Sort must be 'id' or 'name'", null));
+        }
+        try {
+            CursorPage<ItemDTO> items = inventoryService.scrollItems(categoryId, sort.equals("name"), after, size);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Items fetched", items));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/search/scroll")
+    public ResponseEntity<?> scrollSearch(
+            @RequestParam String query,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        try {
+            CursorPage<ItemDTO> items = inventoryService.scrollSearch(query, after, size);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Search completed", items));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(@RequestParam(defaultValue = "ndjson") String format) {
+        ItemExportService.Format exportFormat;
+        try {
+            exportFormat = ItemExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        MediaType contentType = exportFormat == ItemExportService.Format.CSV
+                ? new MediaType("text", "csv")
+                : MediaType.APPLICATION_NDJSON;
+        StreamingResponseBody body = out -> exportService.export(exportFormat, out);
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"inventory-export." + format.toLowerCase() + "\"")
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @RequestParam(required = false) List<Integer> categoryId,
+            @RequestParam(required = false) List<Integer> itemId,
+            @RequestParam(defaultValue = "false") boolean alertsOnly) {
+        SseEmitter emitter = stockEventBroadcaster.subscribe(categoryId, itemId, alertsOnly);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getItemById(@PathVariable Integer id) {
         ItemDTO item = inventoryService.getItemById(id);
@@ -54,17 +177,72 @@ public class InventoryController {
         return ResponseEntity.notFound().build();
     }
 
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<?> getItemBySku(@PathVariable String sku) {
+        ItemDTO item = inventoryService.getItemBySku(sku);
+        if (item != null) {
+            return ResponseEntity.ok(new ApiResponse<>(true, "Item fetched", item));
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{id}/transactions")
+    public ResponseEntity<?> getItemTransactions(
+            @PathVariable Integer id,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<StockTransactionDTO> transactions = inventoryService.getItemTransactions(id, PageRequest.of(page, size));
+        return ResponseEntity.ok(new ApiResponse<>(true, "Transactions fetched", transactions));
+    }
+
+    @GetMapping("/{id}/stock-at")
+    public ResponseEntity<?> getStockAt(
+            @PathVariable Integer id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        StockLevelDTO level = stockLedgerService.getStockAt(id, at);
+        if (level != null) {
+            return ResponseEntity.ok(new ApiResponse<>(true, "Stock level fetched", level));
+        }
+        return ResponseEntity.notFound().build();
+    }
+
     @GetMapping("/low-stock")
-    public ResponseEntity<?> getLowStockItems() {
-        List<ItemDTO> items = inventoryService.getLowStockItems();
+    public ResponseEntity<?> getLowStockItems(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "shortfall") String sort) {
+        Sort order;
+        if (sort.equals("shortfall")) {
+            order = Sort.by(Sort.Order.desc("shortfall"), Sort.Order.asc("itemId"));
+        } else if (sort.equals("name")) {
+            order = Sort.by("itemName", "itemId");
+        } else {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "Sort must be 'shortfall' or 'name'", null));
+        }
+        Page<ItemDTO> items = inventoryService.getLowStockItems(PageRequest.of(page, size, order));
         return ResponseEntity.ok(new ApiResponse<>(true, "Low stock items fetched", items));
     }
 
+    @GetMapping("/valuation")
+    public ResponseEntity<?> getValuation(@RequestParam(defaultValue = "category") String by) {
+        SummaryDimension dimension;
+        if (by.equals("category")) {
+            dimension = SummaryDimension.CATEGORY;
+        } else if (by.equals("location")) {
+            dimension = SummaryDimension.LOCATION;
+        } else {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "Valuation must be by 'category' or 'location'", null));
+        }
+        return ResponseEntity.ok(new ApiResponse<>(true, "Valuation fetched", summaryService.getSummaries(dimension)));
+    }
+
     @PostMapping
     public ResponseEntity<?> createItem(
             @RequestBody InventoryItem item,
             Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName()).orElse(null);
+        User user = currentUser(authentication);
         if (user == null) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "User not found", null));
@@ -78,7 +256,7 @@ public class InventoryController {
             @PathVariable Integer id,
             @RequestBody InventoryItem item,
             Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName()).orElse(null);
+        User user = currentUser(authentication);
         if (user == null) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "User not found", null));
@@ -94,7 +272,7 @@ public class InventoryController {
     public ResponseEntity<?> deleteItem(
             @PathVariable Integer id,
             Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName()).orElse(null);
+        User user = currentUser(authentication);
         if (user == null) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "User not found", null));
@@ -112,13 +290,12 @@ public class InventoryController {
             @RequestParam Integer quantity,
             @RequestParam(required = false) String reference,
             Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName()).orElse(null);
+        User user = currentUser(authentication);
         if (user == null) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "User not found", null));
         }
-        inventoryService.addStock(id, quantity, reference, user);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Stock added", null));
+        return stockResponse(() -> inventoryService.addStock(id, quantity, reference, user), "Stock added");
     }
 
     @PostMapping("/{id}/reduce-stock")
@@ -127,12 +304,146 @@ public class InventoryController {
             @RequestParam Integer quantity,
             @RequestParam(required = false) String reference,
             Authentication authentication) {
-        User user = userService.findByUsername(authentication.getName()).orElse(null);
+        User user = currentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "User not found", null));
+        }
+        return stockResponse(() -> inventoryService.reduceStock(id, quantity, reference, user), "Stock reduced");
+    }
+
+    // scan-to-stock: one scan is one unit unless the scanner sends a quantity
+
+    @PostMapping("/sku/{sku}/add-stock")
+    public ResponseEntity<?> addStockBySku(
+            @PathVariable String sku,
+            @RequestParam(defaultValue = "1") Integer quantity,
+            @RequestParam(required = false) String reference,
+            Authentication authentication) {
+        User user = currentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "User not found", null));
+        }
+        ItemDTO item = inventoryService.getItemBySku(sku);
+        if (item == null) return ResponseEntity.notFound().build();
+        return stockResponse(() -> inventoryService.addStock(item.getItemId(), quantity, reference, user), "Stock added");
+    }
+
+    @PostMapping("/sku/{sku}/reduce-stock")
+    public ResponseEntity<?> reduceStockBySku(
+            @PathVariable String sku,
+            @RequestParam(defaultValue = "1") Integer quantity,
+            @RequestParam(required = false) String reference,
+            Authentication authentication) {
+        User user = currentUser(authentication);
         if (user == null) {
             return ResponseEntity.badRequest()
                     .body(new ApiResponse<>(false, "User not found", null));
         }
-        inventoryService.reduceStock(id, quantity, reference, user);
-        return ResponseEntity.ok(new ApiResponse<>(true, "Stock reduced", null));
+        ItemDTO item = inventoryService.getItemBySku(sku);
+        if (item == null) return ResponseEntity.notFound().build();
+        return stockResponse(() -> inventoryService.reduceStock(item.getItemId(), quantity, reference, user), "Stock reduced");
+    }
+
+    @PostMapping("/bulk-stock")
+    public ResponseEntity<?> applyBulkStock(
+            @RequestBody BulkStockRequest request,
+            Authentication authentication) {
+        User user = currentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "User not found", null));
+        }
+        if (request.getLines() == null || request.getLines().isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "No stock lines supplied", null));
+        }
+        try {
+            BulkStockResult result = inventoryService.applyBulkStock(
+                    request.getTransactionType(), request.getLines(), user);
+            return ResponseEntity.ok(new ApiResponse<>(true, "Bulk stock applied", result));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+    }
+
+    // --------------------- IMPORT -------------------------
+
+    // CSV only; returns 202 with a job id to poll at GET /items/import/{jobId}
+    @PostMapping("/import")
+    public ResponseEntity<?> importItems(@RequestParam("file") MultipartFile file, Authentication authentication) {
+        User user = currentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "User not found", null));
+        }
+        String fileName = file.getOriginalFilename();
+        if (fileName != null && fileName.toLowerCase(Locale.ROOT).matches(".*\\.xlsx?$")) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "Excel files are not supported, save the sheet as CSV (UTF-8)", null));
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "File is empty", null));
+        }
+
+        try {
+            ImportJobDTO job = importService.submit(fileName, file.getInputStream(), user);
+            return ResponseEntity.accepted()
+                    .header(HttpHeaders.LOCATION, "/items/import/" + job.getJobId())
+                    .body(new ApiResponse<>(true, "Import queued", job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "60")
+                    .body(new ApiResponse<>(false, "Too many imports queued, please retry later", null));
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Could not store the upload", null));
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<?> getImportJob(@PathVariable String jobId, Authentication authentication) {
+        User user = currentUser(authentication);
+        if (user == null) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, "User not found", null));
+        }
+        ImportJobDTO job = importService.getJob(jobId, user);
+        if (job != null) {
+            return ResponseEntity.ok(new ApiResponse<>(true, "Import job fetched", job));
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<?> stockResponse(Supplier<StockUpdateResult> operation, String successMessage) {
+        StockUpdateResult result;
+        try {
+            result = operation.get();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), null));
+        }
+
+        switch (result) {
+            case APPLIED:
+                return ResponseEntity.ok(new ApiResponse<>(true, successMessage, result));
+            case INSUFFICIENT_STOCK:
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ApiResponse<>(false, "Insufficient stock", result));
+            default:
+                return ResponseEntity.notFound().build();
+        }
+    }
+
+    // resolves the token's user id through the cache; null for deleted or deactivated users
+    private User currentUser(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            return null;
+        }
+        User user = userCache.get(principal.getUserId());
+        return user != null && Boolean.TRUE.equals(user.getIsActive()) ? user : null;
     }
 }
@@ -0,0 +1,51 @@
+package com.autandojam.datasource;
+
+import com.autandojam.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Keeps a user's reads on the primary for a while after they commit a write,
+// so a client that just changed stock sees its own change even when the
+// replica hasn't caught up. Per instance; requests without a user are not tracked.
+public class ReadYourWritesTracker {
+    private final Cache<Integer, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window) {
+        recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    // called when a read-write transaction takes a primary connection; the
+    // user becomes sticky once it commits
+    void onPrimaryConnection() {
+        Integer userId = currentUserId();
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    boolean isSticky() {
+        Integer userId = currentUserId();
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    private Integer currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser principal)) {
+            return null;
+        }
+        return principal.getUserId();
+    }
+}
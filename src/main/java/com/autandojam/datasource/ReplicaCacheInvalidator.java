@@ -0,0 +1,33 @@
+package com.autandojam.datasource;
+
+import com.autandojam.cache.ItemCache;
+import com.autandojam.event.InventoryItemEvent;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// ItemCache drops an entry when the change commits, but a cache miss served
+// by the replica within max-lag of that commit can load the old row again.
+// A second invalidation once that window has passed removes it.
+public class ReplicaCacheInvalidator {
+    private final ItemCache itemCache;
+    private final TaskScheduler taskScheduler;
+    private final Duration delay;
+
+    public ReplicaCacheInvalidator(ItemCache itemCache, TaskScheduler taskScheduler, Duration delay) {
+        this.itemCache = itemCache;
+        this.taskScheduler = taskScheduler;
+        this.delay = delay;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemEvent event) {
+        // a lagging replica returns no row for a new item, and misses are not cached
+        if (event.getType() == InventoryItemEvent.Type.CREATED) return;
+
+        Integer itemId = event.getItemId();
+        taskScheduler.schedule(() -> itemCache.invalidate(itemId), Instant.now().plus(delay));
+    }
+}
@@ -0,0 +1,103 @@
+package com.autandojam.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Estimates replica lag from a heartbeat row: each probe reads the replica's
+// copy, then writes a new beat to the primary. If the replica already shows
+// the previous beat the lag is under one probe interval; otherwise it is at
+// least the gap between the two. Beyond max-lag, or when the replica can't be
+// reached, read-only transactions go to the primary.
+public class ReplicaLagMonitor {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final boolean heartbeat;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMillis = -1; // -1 while unknown
+    private LocalDateTime lastBeat;
+
+    // heartbeat=false trusts the replica unconditionally, for two independent
+    // embedded databases in local testing where nothing replicates
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, boolean heartbeat,
+                             MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        this.heartbeat = heartbeat;
+        this.replicaUsable = !heartbeat;
+
+        Gauge.builder("inventory.datasource.replica.lag", this,
+                        monitor -> monitor.lagMillis < 0 ? Double.NaN : monitor.lagMillis / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("inventory.datasource.replica.usable", this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.datasource.replica.probe-interval:PT1S}")
+    public void probe() {
+        if (!heartbeat) return;
+
+        boolean usable;
+        try {
+            List<Timestamp> seen = replica.queryForList(
+                    "SELECT beat_at FROM replication_heartbeat WHERE id = 1", Timestamp.class);
+            if (seen.isEmpty()) {
+                // no beat has reached the replica yet
+                usable = false;
+                lagMillis = -1;
+            } else {
+                // right after startup there is no previous beat, so measure against now
+                LocalDateTime reference = lastBeat != null ? lastBeat : LocalDateTime.now();
+                lagMillis = Math.max(0, Duration.between(seen.get(0).toLocalDateTime(), reference).toMillis());
+                usable = lagMillis <= maxLag.toMillis();
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            lagMillis = -1;
+            if (replicaUsable) log.warn("Replica unreachable, reading from the primary: {}", e.getMessage());
+        }
+
+        if (usable != replicaUsable) {
+            log.info("Replica {} (lag {} ms, max {} ms)", usable ? "back in use" : "out of use",
+                    lagMillis < 0 ? "unknown" : lagMillis, maxLag.toMillis());
+        }
+        replicaUsable = usable;
+        writeBeat();
+    }
+
+    private void writeBeat() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            Timestamp beat = Timestamp.valueOf(now);
+            if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", beat) == 0) {
+                primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", beat);
+            }
+            lastBeat = now;
+        } catch (DuplicateKeyException e) {
+            // another instance inserted the row first; the next probe updates it
+        } catch (DataAccessException e) {
+            log.warn("Could not write replication heartbeat: {}", e.getMessage());
+        }
+    }
+}
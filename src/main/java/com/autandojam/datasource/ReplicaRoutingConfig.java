@@ -0,0 +1,133 @@
+package com.autandojam.datasource;
+
+import com.autandojam.InventorySystemApplication;
+import com.autandojam.cache.ItemCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.orm.jpa.EntityManagerFactoryBuilder;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+// Read-replica routing (inventory.datasource.replica.enabled=true): the
+// spring.datasource pool becomes the primary, inventory.datasource.replica
+// describes a second pool, and @Transactional(readOnly = true) work goes to
+// the replica unless it lags more than max-lag or the current user wrote
+// within the read-your-writes window.
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.datasource.replica", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Value("${inventory.datasource.replica.max-lag:5s}")
+    private Duration maxLag;
+
+    @Value("${inventory.datasource.replica.probe-interval:PT1S}")
+    private Duration probeInterval;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("inventory.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${inventory.datasource.replica.url}") String url,
+            @Value("${inventory.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${inventory.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${inventory.datasource.replica.lag-probe:heartbeat}") String lagProbe,
+            MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primary, replica, maxLag, !"none".equalsIgnoreCase(lagProbe), meterRegistry);
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${inventory.datasource.replica.read-your-writes:5s}") Duration window) {
+        return new ReadYourWritesTracker(window);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ReplicaLagMonitor lagMonitor,
+            ReadYourWritesTracker readYourWrites,
+            MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(primary, replica, lagMonitor, readYourWrites, meterRegistry);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    // a replica read can lag a commit by up to max-lag, plus one probe
+    // interval before the monitor notices the lag grew
+    @Bean
+    public ReplicaCacheInvalidator replicaCacheInvalidator(ItemCache itemCache, TaskScheduler taskScheduler) {
+        return new ReplicaCacheInvalidator(itemCache, taskScheduler, maxLag.plus(probeInterval));
+    }
+
+    // Local testing with two independent embedded databases: nothing
+    // replicates between them, so build the replica's tables from the entities
+    // the way ddl-auto does for the primary and run the same spring.sql.init
+    // scripts, leaving both with the same starting data.
+    @Bean
+    @ConditionalOnProperty(prefix = "inventory.datasource.replica", name = "create-schema", havingValue = "true")
+    public SmartInitializingSingleton replicaSchemaInitializer(
+            EntityManagerFactoryBuilder builder,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ObjectProvider<SqlInitializationProperties> sqlInitProperties) {
+        return () -> {
+            LocalContainerEntityManagerFactoryBean factory = builder.dataSource(replica)
+                    .packages(InventorySystemApplication.class)
+                    .persistenceUnit("replica-schema")
+                    .properties(Map.of(
+                            "hibernate.hbm2ddl.auto", "update",
+                            "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                            "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()))
+                    .build();
+            factory.afterPropertiesSet();
+            factory.destroy();
+
+            sqlInitProperties.ifAvailable(properties ->
+                    new SqlDataSourceScriptDatabaseInitializer(replica, properties).initializeDatabase());
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.autandojam.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Sends connections for read-only transactions to the replica and everything
+// else to the primary. Only useful behind a LazyConnectionDataSourceProxy:
+// the transaction manager opens its connection before the read-only flag is
+// bound to the thread, and the proxy defers that until the first statement.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    enum Target { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final ReadYourWritesTracker readYourWrites;
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter lagFallbacks;
+    private final Counter stickyFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    ReadYourWritesTracker readYourWrites, MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+
+        primaryRoutes = meterRegistry.counter("inventory.datasource.route", "target", "primary", "reason", "write");
+        replicaRoutes = meterRegistry.counter("inventory.datasource.route", "target", "replica", "reason", "read");
+        lagFallbacks = meterRegistry.counter("inventory.datasource.route", "target", "primary", "reason", "lag");
+        stickyFallbacks = meterRegistry.counter("inventory.datasource.route", "target", "primary", "reason", "sticky");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            readYourWrites.onPrimaryConnection();
+            primaryRoutes.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            lagFallbacks.increment();
+            return Target.PRIMARY;
+        }
+        if (readYourWrites.isSticky()) {
+            stickyFallbacks.increment();
+            return Target.PRIMARY;
+        }
+        replicaRoutes.increment();
+        return Target.REPLICA;
+    }
+}
@@ -0,0 +1,59 @@
+package com.autandojam.diagnostics;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+// Diagnostic mode (inventory.sql-diagnostics.enabled=true): wraps the
+// DataSource in a datasource-proxy that counts statements per request.
+// With on-budget-exceeded=fail a request that goes over statement-budget
+// gets an exception instead of a log line, which is how tests should run.
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.sql-diagnostics", name = "enabled", havingValue = "true")
+public class SqlDiagnosticsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(
+            @Value("${inventory.sql-diagnostics.statement-budget:10}") int statementBudget,
+            @Value("${inventory.sql-diagnostics.on-budget-exceeded:warn}") String onBudgetExceeded) {
+        return new SqlStatementCounter(statementBudget, "fail".equalsIgnoreCase(onBudgetExceeded));
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlDiagnosticsFilter> sqlDiagnosticsFilter(
+            SqlStatementCounter counter,
+            @Value("${inventory.sql-diagnostics.repeat-threshold:5}") int repeatThreshold) {
+        FilterRegistrationBean<SqlDiagnosticsFilter> registration =
+                new FilterRegistrationBean<>(new SqlDiagnosticsFilter(counter, repeatThreshold));
+        // outside the security chain, so statements run during authentication are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    // static: post-processors are created before the rest of the configuration
+    @Bean
+    public static BeanPostProcessor sqlDiagnosticsDataSourceWrapper(
+            ObjectProvider<SqlStatementCounter> counter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) return bean;
+                // the replica-routing proxy: the pools behind it are wrapped on their own
+                if (bean instanceof DelegatingDataSource) return bean;
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(counter.getObject())
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.autandojam.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Adds X-SQL-Count / X-SQL-Time-Ms to each response and logs requests that
+// go over the statement budget or repeat the same statement (likely N+1).
+// Headers are written when the response commits, so they cover everything
+// the handler ran before the body went out.
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(SqlDiagnosticsFilter.class);
+
+    private final SqlStatementCounter counter;
+    private final int repeatThreshold;
+
+    public SqlDiagnosticsFilter(SqlStatementCounter counter, int repeatThreshold) {
+        this.counter = counter;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.start();
+        try {
+            chain.doFilter(request, new OnCommittedResponseWrapper(response) {
+                @Override
+                protected void onResponseCommitted() {
+                    writeHeaders(response);
+                }
+            });
+            // bodiless responses never flush through the wrapper
+            if (!response.isCommitted()) writeHeaders(response);
+        } finally {
+            report(request, counter.finish());
+        }
+    }
+
+    private void writeHeaders(HttpServletResponse response) {
+        SqlStatementCounter.RequestStats stats = counter.stats();
+        if (stats == null) return;
+        response.setHeader("X-SQL-Count", String.valueOf(stats.getStatements()));
+        response.setHeader("X-SQL-Time-Ms", String.valueOf(stats.getElapsedMillis()));
+    }
+
+    private void report(HttpServletRequest request, SqlStatementCounter.RequestStats stats) {
+        if (stats == null) return;
+        String endpoint = request.getMethod() + " " + request.getRequestURI();
+
+        if (stats.getStatements() > counter.getStatementBudget()) {
+            log.warn("{} ran {} SQL statements ({} ms), budget is {}",
+                    endpoint, stats.getStatements(), stats.getElapsedMillis(), counter.getStatementBudget());
+        } else {
+            log.debug("{} ran {} SQL statements ({} ms)", endpoint, stats.getStatements(), stats.getElapsedMillis());
+        }
+
+        stats.repeatedStatements(repeatThreshold).forEach((sql, count) ->
+                log.warn("{} ran the same statement {} times, possible N+1: {}", endpoint, count, sql));
+    }
+}
@@ -0,0 +1,89 @@
+package com.autandojam.diagnostics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Counts JDBC statements and their time for the HTTP request running on the
+// current thread. Statements on other threads (audit writer, index build)
+// are ignored. A JDBC batch counts once, however many rows it carries.
+public class SqlStatementCounter implements QueryExecutionListener {
+    private final int statementBudget;
+    private final boolean failOverBudget;
+
+    private final ThreadLocal<RequestStats> current = new ThreadLocal<>();
+
+    public SqlStatementCounter(int statementBudget, boolean failOverBudget) {
+        this.statementBudget = statementBudget;
+        this.failOverBudget = failOverBudget;
+    }
+
+    public void start() {
+        current.set(new RequestStats());
+    }
+
+    public RequestStats stats() {
+        return current.get();
+    }
+
+    public RequestStats finish() {
+        RequestStats stats = current.get();
+        current.remove();
+        return stats;
+    }
+
+    public int getStatementBudget() {
+        return statementBudget;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStats stats = current.get();
+        // refuse the statement that would go over budget, so tests fail on the request that regressed
+        if (stats != null && failOverBudget && stats.statements >= statementBudget) {
+            throw new IllegalStateException("SQL statement budget of " + statementBudget
+                    + " exceeded; next statement: " + firstQuery(queryInfoList));
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestStats stats = current.get();
+        if (stats == null) return;
+
+        stats.statements++;
+        stats.elapsedMillis += execInfo.getElapsedTime();
+        stats.executionsBySql.merge(firstQuery(queryInfoList), 1, Integer::sum);
+    }
+
+    private static String firstQuery(List<QueryInfo> queryInfoList) {
+        return queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+    }
+
+    public static class RequestStats {
+        private int statements;
+        private long elapsedMillis;
+        private final Map<String, Integer> executionsBySql = new HashMap<>();
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        // the same SQL run repeatedly in one request is the N+1 signature
+        public Map<String, Integer> repeatedStatements(int threshold) {
+            Map<String, Integer> repeated = new HashMap<>();
+            executionsBySql.forEach((sql, count) -> {
+                if (count >= threshold) repeated.put(sql, count);
+            });
+            return repeated;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.autandojam.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityLogDTO {
+    private Integer logId;
+    private Integer userId;
+    private String action;
+    private String entityType;
+    private Integer entityId;
+    private String description;
+    private String ipAddress;
+    private LocalDateTime createdAt;
+    private boolean archived;
+}
@@ -0,0 +1,13 @@
+package com.autandojam.dto;
+
+import com.autandojam.entity.TransactionType;
+import lombok.*;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStockRequest {
+    private TransactionType transactionType;
+    private List<StockMovementLine> lines;
+}
@@ -0,0 +1,17 @@
+package com.autandojam.dto;
+
+import lombok.*;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkStockResult {
+    private int appliedLines;
+    @Builder.Default
+    private List<Integer> missingItemIds = new ArrayList<>();
+    @Builder.Default
+    private List<Integer> insufficientStockItemIds = new ArrayList<>();
+}
@@ -0,0 +1,11 @@
+package com.autandojam.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportRowError {
+    private long row; // data row, 1 = first line after the header
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.autandojam.dto;
+
+import com.autandojam.entity.SummaryDimension;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySummaryDTO {
+    private SummaryDimension dimension;
+    private String key;
+    private String label; // category name, or the location itself
+    private Long itemCount;
+    private Long totalQuantity;
+    private BigDecimal totalValue;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.autandojam.dto;
+
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor for the scroll endpoints: the sort key of the last row
+// returned (item name or search score; null when sorting by id) plus its itemId
+// as the tie-breaker.
+@Value
+public class ItemCursor {
+    private static final char SEPARATOR = '\n';
+
+    String sortKey;
+    Integer itemId;
+
+    public String encode() {
+        String raw = sortKey == null ? String.valueOf(itemId) : sortKey + SEPARATOR + itemId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf(SEPARATOR);
+            if (split < 0) {
+                return new ItemCursor(null, Integer.valueOf(raw));
+            }
+            return new ItemCursor(raw.substring(0, split), Integer.valueOf(raw.substring(split + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
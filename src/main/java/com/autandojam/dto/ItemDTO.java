@@ -20,6 +20,7 @@ public class ItemDTO {
     private String location;
     private String sku;
     private Integer reorderLevel;
+    private Integer shortfall;
     private String addedBy;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
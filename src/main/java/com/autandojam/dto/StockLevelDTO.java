@@ -0,0 +1,15 @@
+package com.autandojam.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLevelDTO {
+    private Integer itemId;
+    private LocalDateTime at;
+    private Integer quantity;
+    private LocalDateTime snapshotTakenAt; // null when replayed from the live quantity
+}
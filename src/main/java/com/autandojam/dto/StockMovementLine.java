@@ -0,0 +1,12 @@
+package com.autandojam.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementLine {
+    private Integer itemId;
+    private Integer quantity;
+    private String reference;
+}
@@ -0,0 +1,21 @@
+package com.autandojam.dto;
+
+import com.autandojam.entity.TransactionType;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockTransactionDTO {
+    private Integer transactionId;
+    private Integer itemId;
+    private TransactionType transactionType;
+    private Integer quantityChange;
+    private String referenceNumber;
+    private String notes;
+    private String performedBy;
+    private LocalDateTime createdAt;
+    private boolean archived;
+}
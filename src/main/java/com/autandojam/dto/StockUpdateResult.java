@@ -0,0 +1,5 @@
+package com.autandojam.dto;
+
+public enum StockUpdateResult {
+    APPLIED, INSUFFICIENT_STOCK, NOT_FOUND
+}
@@ -8,7 +8,9 @@ import java.time.LocalDateTime;
 @Table(name = "activity_logs", indexes = {
     @Index(name = "idx_user", columnList = "user_id"),
     @Index(name = "idx_action", columnList = "action"),
-    @Index(name = "idx_date", columnList = "created_at")
+    @Index(name = "idx_date", columnList = "created_at"),
+    @Index(name = "idx_user_date", columnList = "user_id, created_at"),
+    @Index(name = "idx_action_date", columnList = "action, created_at")
 })
 @Data
 @NoArgsConstructor
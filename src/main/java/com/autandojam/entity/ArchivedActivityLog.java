@@ -0,0 +1,44 @@
+package com.autandojam.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// activity_logs rows past retention, moved by LedgerArchiver with their original ids
+@Entity
+@Table(name = "activity_logs_archive", indexes = {
+    @Index(name = "idx_log_archive_user_date", columnList = "user_id, created_at"),
+    @Index(name = "idx_log_archive_action_date", columnList = "action, created_at"),
+    @Index(name = "idx_log_archive_date", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedActivityLog {
+    @Id
+    private Integer logId;
+
+    @Column(name = "user_id", nullable = false)
+    private Integer userId;
+
+    @Column(nullable = false, length = 50)
+    private String action;
+
+    @Column(length = 50)
+    private String entityType;
+
+    private Integer entityId;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(length = 45)
+    private String ipAddress;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,47 @@
+package com.autandojam.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// stock_transactions rows past retention, moved by LedgerArchiver with their
+// original ids. No foreign keys, so items and users can change underneath.
+@Entity
+@Table(name = "stock_transactions_archive", indexes = {
+    @Index(name = "idx_tx_archive_item", columnList = "item_id"),
+    @Index(name = "idx_tx_archive_item_date", columnList = "item_id, created_at"),
+    @Index(name = "idx_tx_archive_date", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedStockTransaction {
+    @Id
+    private Integer transactionId;
+
+    @Column(name = "item_id", nullable = false)
+    private Integer itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType transactionType;
+
+    @Column(nullable = false)
+    private Integer quantityChange;
+
+    @Column(length = 50)
+    private String referenceNumber;
+
+    @Column(columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "performed_by", nullable = false)
+    private Integer performedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -10,7 +10,10 @@ import java.time.LocalDateTime;
 @Table(name = "inventory_items", indexes = {
         @Index(name = "idx_item_name", columnList = "item_name"),
         @Index(name = "idx_category", columnList = "category_id"),
+        @Index(name = "idx_category_item_name", columnList = "category_id, item_name"),
         @Index(name = "idx_quantity", columnList = "quantity"),
+        @Index(name = "idx_shortfall", columnList = "shortfall"),
+        @Index(name = "idx_location", columnList = "location"),
         @Index(name = "idx_sku", columnList = "sku")
 })
 @Data
@@ -51,6 +54,10 @@ public class InventoryItem {
     @Column(nullable = false)
     private Integer reorderLevel;
 
+    // reorderLevel - quantity, kept in step with both so the low-stock list
+    // (shortfall >= 0) is an index range scan instead of a column comparison
+    private Integer shortfall;
+
     @ManyToOne(fetch = FetchType.EAGER) // FIXED
     @JoinColumn(name = "added_by", nullable = false)
     private User addedBy;
@@ -71,16 +78,23 @@ public class InventoryItem {
             reorderLevel = 5;
 
         calculateTotalValue();
+        calculateShortfall();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
         calculateTotalValue();
+        calculateShortfall();
     }
 
     public void calculateTotalValue() {
         if (quantity != null && unitPrice != null)
             this.totalValue = unitPrice.multiply(new BigDecimal(quantity));
     }
+
+    public void calculateShortfall() {
+        if (quantity != null && reorderLevel != null)
+            this.shortfall = reorderLevel - quantity;
+    }
 }
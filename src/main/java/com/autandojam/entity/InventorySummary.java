@@ -0,0 +1,42 @@
+package com.autandojam.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Running totals per category (key = category id) and per location
+// (key = location, "" when unset), kept in step with inventory_items by
+// InventorySummaryService inside the same transactions.
+@Entity
+@Table(name = "inventory_summaries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_summary_dimension_key", columnNames = {"dimension", "dimension_key"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySummary {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer summaryId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SummaryDimension dimension;
+
+    @Column(name = "dimension_key", nullable = false, length = 100)
+    private String dimensionKey;
+
+    @Column(nullable = false)
+    private Long itemCount;
+
+    @Column(nullable = false)
+    private Long totalQuantity;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalValue;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.autandojam.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+// Single row the primary rewrites every probe interval; how far behind the
+// replica's copy is tells ReplicaLagMonitor how stale replica reads are.
+@Entity
+@Table(name = "replication_heartbeat")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationHeartbeat {
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private LocalDateTime beatAt;
+}
@@ -0,0 +1,38 @@
+package com.autandojam.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+import java.time.LocalDateTime;
+
+// Quantity of one item at takenAt. Every ledger row for the item with
+// transaction_id <= lastTransactionId is reflected in quantity, so a
+// point-in-time lookup only replays the rows after it.
+@Entity
+@Table(name = "stock_snapshots", indexes = {
+    @Index(name = "idx_snapshot_item_taken", columnList = "item_id, taken_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSnapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long snapshotId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private InventoryItem item;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Integer lastTransactionId;
+
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -8,7 +8,8 @@ import java.time.LocalDateTime;
 @Table(name = "stock_transactions", indexes = {
     @Index(name = "idx_item", columnList = "item_id"),
     @Index(name = "idx_type", columnList = "transaction_type"),
-    @Index(name = "idx_date", columnList = "created_at")
+    @Index(name = "idx_date", columnList = "created_at"),
+    @Index(name = "idx_item_date", columnList = "item_id, created_at")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,5 @@
+package com.autandojam.entity;
+
+public enum SummaryDimension {
+    CATEGORY, LOCATION
+}
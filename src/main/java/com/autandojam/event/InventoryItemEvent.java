@@ -0,0 +1,55 @@
+package com.autandojam.event;
+
+import com.autandojam.dto.ItemDTO;
+import lombok.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Published by InventoryService for every change to an item. Listeners use
+// @TransactionalEventListener so they only see changes that actually committed.
+// Events are built after the transaction has written the item row and holds
+// its lock until commit, so per item the sequence follows commit order even
+// when after-commit listeners run out of order.
+@Value
+public class InventoryItemEvent {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, STOCK_CHANGED
+    }
+
+    Type type;
+    Integer itemId;
+    ItemDTO item; // state after the change; the last state before it for DELETED
+    Integer previousShortfall; // null for CREATED and DELETED
+    long sequence;
+
+    public static InventoryItemEvent created(ItemDTO item) {
+        return new InventoryItemEvent(Type.CREATED, item.getItemId(), item, null, SEQUENCE.incrementAndGet());
+    }
+
+    public static InventoryItemEvent updated(ItemDTO item, Integer previousShortfall) {
+        return new InventoryItemEvent(Type.UPDATED, item.getItemId(), item, previousShortfall, SEQUENCE.incrementAndGet());
+    }
+
+    public static InventoryItemEvent deleted(ItemDTO item) {
+        return new InventoryItemEvent(Type.DELETED, item.getItemId(), item, null, SEQUENCE.incrementAndGet());
+    }
+
+    public static InventoryItemEvent stockChanged(ItemDTO item, Integer previousShortfall) {
+        return new InventoryItemEvent(Type.STOCK_CHANGED, item.getItemId(), item, previousShortfall, SEQUENCE.incrementAndGet());
+    }
+
+    // true when the change moved the item into (or out of) the low-stock set
+    public boolean crossedIntoLowStock() {
+        return isLow(item.getShortfall()) && !isLow(previousShortfall);
+    }
+
+    public boolean crossedOutOfLowStock() {
+        return previousShortfall != null && isLow(previousShortfall) && !isLow(item.getShortfall());
+    }
+
+    private static boolean isLow(Integer shortfall) {
+        return shortfall != null && shortfall >= 0;
+    }
+}
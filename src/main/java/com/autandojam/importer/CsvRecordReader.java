@@ -0,0 +1,76 @@
+package com.autandojam.importer;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming RFC 4180 reader, one record per next() call. Quoted fields may
+// hold commas, doubled quotes and line breaks, which is what
+// ItemExportService writes. A record longer than maxRecordChars is
+// rejected, so a stray quote can't pull the rest of the file into memory.
+public class CsvRecordReader implements Closeable {
+    private final BufferedReader reader;
+    private final int maxRecordChars;
+    private boolean started;
+
+    public CsvRecordReader(Reader reader, int maxRecordChars) {
+        this.reader = new BufferedReader(reader);
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    // null at end of input
+    public List<String> next() throws IOException {
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') c = reader.read(); // byte order mark
+        }
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+
+        while (true) {
+            if (++length > maxRecordChars) {
+                throw new IOException("Record longer than " + maxRecordChars + " characters");
+            }
+            if (quoted) {
+                if (c == -1) throw new IOException("Unterminated quoted field");
+                if (c == '"') {
+                    int next = reader.read();
+                    if (next != '"') {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') reader.reset();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
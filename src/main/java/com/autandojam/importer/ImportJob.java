@@ -0,0 +1,111 @@
+package com.autandojam.importer;
+
+import com.autandojam.dto.ImportJobDTO;
+import com.autandojam.dto.ImportRowError;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one import, updated by the import thread and read by the
+// progress endpoint. Only the first maxErrors row errors are kept.
+public class ImportJob {
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String jobId = UUID.randomUUID().toString();
+    private final String fileName;
+    private final Path file;
+    private final Integer userId;
+    private final int maxErrors;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsFailed = new AtomicLong();
+    private final List<ImportRowError> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile String failureMessage;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public ImportJob(String fileName, Path file, Integer userId, int maxErrors) {
+        this.fileName = fileName;
+        this.file = file;
+        this.userId = userId;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    public void completed() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void failed(String message) {
+        failureMessage = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public void rowsRead(int count) {
+        rowsRead.addAndGet(count);
+    }
+
+    public void rowsImported(int count) {
+        rowsImported.addAndGet(count);
+    }
+
+    public void rowFailed(long row, String message) {
+        rowsFailed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) errors.add(new ImportRowError(row, message));
+        }
+    }
+
+    public ImportJobDTO toDTO() {
+        List<ImportRowError> errorsCopy;
+        synchronized (errors) {
+            errorsCopy = new ArrayList<>(errors);
+        }
+        // validation and SKU checks report in different passes
+        errorsCopy.sort(Comparator.comparingLong(ImportRowError::getRow));
+        long failed = rowsFailed.get();
+        return ImportJobDTO.builder()
+                .jobId(jobId)
+                .fileName(fileName)
+                .status(status.name())
+                .rowsRead(rowsRead.get())
+                .rowsImported(rowsImported.get())
+                .rowsFailed(failed)
+                .errors(errorsCopy)
+                .errorsTruncated(failed > errorsCopy.size())
+                .failureMessage(failureMessage)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
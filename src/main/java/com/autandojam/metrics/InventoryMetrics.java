@@ -0,0 +1,102 @@
+package com.autandojam.metrics;
+
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.event.InventoryItemEvent;
+import com.autandojam.repository.InventoryItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Business meters: stock moved in/out per category (from committed change
+// events) and catalogue-wide gauges. The gauges run a query, so their values
+// are cached for inventory.metrics.gauge-refresh instead of hitting the
+// database on every scrape.
+@Component
+public class InventoryMetrics {
+    private static final Logger log = LoggerFactory.getLogger(InventoryMetrics.class);
+
+    @Value("${inventory.metrics.gauge-refresh:30s}")
+    private Duration gaugeRefresh;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(0, 0, BigDecimal.ZERO, 0);
+
+    // not synchronized: holding a monitor across the queries would pin a
+    // virtual thread's carrier
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("inventory.items", this, metrics -> metrics.current().itemCount())
+                .description("Items in the catalogue")
+                .register(meterRegistry);
+        Gauge.builder("inventory.items.low_stock", this, metrics -> metrics.current().lowStockCount())
+                .description("Items at or below their reorder level")
+                .register(meterRegistry);
+        Gauge.builder("inventory.value.total", this, metrics -> metrics.current().totalValue().doubleValue())
+                .description("Sum of quantity * unit price over all items")
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemEvent event) {
+        if (event.getType() != InventoryItemEvent.Type.STOCK_CHANGED) return;
+
+        ItemDTO item = event.getItem();
+        if (item.getShortfall() == null || event.getPreviousShortfall() == null) return;
+
+        // shortfall = reorderLevel - quantity, so the quantity change is the shortfall drop
+        int moved = event.getPreviousShortfall() - item.getShortfall();
+        if (moved == 0) return;
+
+        Counter.builder("inventory.stock.movement")
+                .description("Units moved in or out of stock")
+                .baseUnit("units")
+                .tag("type", moved > 0 ? "IN" : "OUT")
+                .tag("category", item.getCategoryName() == null ? "unknown" : item.getCategoryName())
+                .register(meterRegistry)
+                .increment(Math.abs(moved));
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long now = System.currentTimeMillis();
+        if (now - current.takenAt() < gaugeRefresh.toMillis()) return current;
+
+        // another thread is already refreshing; the previous values are fine for this read
+        if (!refreshLock.tryLock()) return current;
+        try {
+            if (snapshot != current) return snapshot;
+            try {
+                snapshot = new Snapshot(itemRepository.count(), itemRepository.countLowStock(),
+                        itemRepository.sumTotalValue(), now);
+            } catch (RuntimeException e) {
+                // keep serving the last values; a scrape must not fail because the database is down
+                log.warn("Could not refresh inventory gauges: {}", e.getMessage());
+                snapshot = new Snapshot(current.itemCount(), current.lowStockCount(), current.totalValue(), now);
+            }
+            return snapshot;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private record Snapshot(long itemCount, long lowStockCount, BigDecimal totalValue, long takenAt) {
+    }
+}
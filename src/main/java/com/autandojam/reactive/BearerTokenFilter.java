@@ -0,0 +1,42 @@
+package com.autandojam.reactive;
+
+import com.autandojam.dto.ApiResponse;
+import com.autandojam.security.JwtProvider;
+import io.jsonwebtoken.JwtException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.HandlerFilterFunction;
+import org.springframework.web.reactive.function.server.HandlerFunction;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+// The reactive server sits outside the servlet security chain, so it checks
+// the same bearer tokens itself. Verification is the cached, CPU-only
+// JwtProvider path and safe to run on the event loop.
+class BearerTokenFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtProvider jwtProvider;
+
+    BearerTokenFilter(JwtProvider jwtProvider) {
+        this.jwtProvider = jwtProvider;
+    }
+
+    @Override
+    public Mono<ServerResponse> filter(ServerRequest request, HandlerFunction<ServerResponse> next) {
+        String header = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            try {
+                jwtProvider.parseClaims(header.substring(BEARER_PREFIX.length()));
+                return next.handle(request);
+            } catch (JwtException | IllegalArgumentException e) {
+                // fall through to 401
+            }
+        }
+        return ServerResponse.status(HttpStatus.UNAUTHORIZED)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ApiResponse<>(false, "Unauthorized", null));
+    }
+}
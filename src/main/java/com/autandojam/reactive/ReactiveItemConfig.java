@@ -0,0 +1,90 @@
+package com.autandojam.reactive;
+
+import com.autandojam.security.JwtProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+// Non-blocking, read-only variant of the /items API (inventory.reactive.enabled=true)
+// on its own port, beside the servlet controllers. The R2DBC pool is kept out
+// of the context on purpose: a ConnectionFactory bean would switch off the
+// DataSource auto-configuration that JPA runs on.
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.reactive", name = "enabled", havingValue = "true")
+public class ReactiveItemConfig {
+
+    @Bean
+    public ReactiveItemRepository reactiveItemRepository(
+            @Value("${inventory.reactive.r2dbc.url}") String url,
+            @Value("${inventory.reactive.r2dbc.username:${spring.datasource.username:}}") String username,
+            @Value("${inventory.reactive.r2dbc.password:${spring.datasource.password:}}") String password,
+            @Value("${inventory.reactive.r2dbc.pool-size:10}") int poolSize,
+            @Value("${inventory.reactive.r2dbc.fetch-size:200}") int fetchSize,
+            @Value("${inventory.reactive.page-size:500}") int pageSize,
+            MeterRegistry meterRegistry) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, username)
+                .option(ConnectionFactoryOptions.PASSWORD, password)
+                .build();
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                .name("reactive-items")
+                .initialSize(Math.min(2, poolSize))
+                .maxSize(poolSize)
+                .maxIdleTime(Duration.ofMinutes(10))
+                .build());
+        new ConnectionPoolMetrics(pool, "reactive-items", Tags.empty()).bindTo(meterRegistry);
+        return new ReactiveItemRepository(pool, fetchSize, pageSize);
+    }
+
+    @Bean
+    public ReactiveItemServer reactiveItemServer(
+            ReactiveItemRepository itemRepository,
+            JwtProvider jwtProvider,
+            ObjectMapper objectMapper,
+            @Value("${inventory.reactive.port:8081}") int port,
+            @Value("${inventory.reactive.event-loop-threads:4}") int eventLoopThreads,
+            @Value("${inventory.reactive.idle-timeout:60s}") Duration idleTimeout,
+            @Value("${inventory.reactive.max-limit:10000}") int maxLimit) {
+        ReactiveItemHandler handler = new ReactiveItemHandler(itemRepository, maxLimit);
+
+        // literal paths ahead of /items/{id}
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/items", handler::getAllItems)
+                .GET("/items/search", handler::searchItems)
+                .GET("/items/low-stock", handler::getLowStockItems)
+                .GET("/items/category/{categoryId}", handler::getItemsByCategory)
+                .GET("/items/{id}", handler::getItemById)
+                .filter(new BearerTokenFilter(jwtProvider))
+                .build();
+
+        // the application's mapper, minus indent-output: NDJSON needs one document per line
+        ObjectMapper mapper = objectMapper.copy().disable(SerializationFeature.INDENT_OUTPUT);
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(mapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(mapper));
+                })
+                .build();
+
+        return new ReactiveItemServer(RouterFunctions.toHttpHandler(routes, strategies),
+                port, eventLoopThreads, idleTimeout);
+    }
+}
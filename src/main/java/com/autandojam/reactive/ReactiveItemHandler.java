@@ -0,0 +1,89 @@
+package com.autandojam.reactive;
+
+import com.autandojam.dto.ApiResponse;
+import com.autandojam.dto.ItemDTO;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Read-only /items endpoints for the reactive server. Listings stream
+// ItemDTOs instead of wrapping a page in ApiResponse: as a JSON array by
+// default, or one object per line with Accept: application/x-ndjson.
+// ?after=<itemId> continues a listing where a dropped connection left off,
+// or past the max-limit items one response carries.
+public class ReactiveItemHandler {
+    private static final MediaType NDJSON = MediaType.APPLICATION_NDJSON;
+
+    private final ReactiveItemRepository itemRepository;
+    private final int maxLimit;
+
+    public ReactiveItemHandler(ReactiveItemRepository itemRepository, int maxLimit) {
+        this.itemRepository = itemRepository;
+        this.maxLimit = maxLimit;
+    }
+
+    public Mono<ServerResponse> getAllItems(ServerRequest request) {
+        return stream(request, itemRepository.findItemDTOsAfterId(after(request), limit(request)));
+    }
+
+    public Mono<ServerResponse> getItemsByCategory(ServerRequest request) {
+        Integer categoryId = pathId(request, "categoryId");
+        if (categoryId == null) return badRequest("Invalid category id");
+        return stream(request, itemRepository.findItemDTOsInCategoryAfterId(categoryId, after(request), limit(request)));
+    }
+
+    public Mono<ServerResponse> searchItems(ServerRequest request) {
+        String query = request.queryParam("query").orElse("");
+        if (query.isBlank()) return getAllItems(request);
+        return stream(request, itemRepository.searchItemDTOsByNameAfterId(query, after(request), limit(request)));
+    }
+
+    public Mono<ServerResponse> getLowStockItems(ServerRequest request) {
+        return stream(request, itemRepository.findLowStockItemDTOs(limit(request)));
+    }
+
+    public Mono<ServerResponse> getItemById(ServerRequest request) {
+        Integer itemId = pathId(request, "id");
+        if (itemId == null) return badRequest("Invalid item id");
+        return itemRepository.findItemDTOById(itemId)
+                .flatMap(item -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(new ApiResponse<>(true, "Item fetched", item)))
+                .switchIfEmpty(ServerResponse.notFound().build());
+    }
+
+    private Mono<ServerResponse> stream(ServerRequest request, Flux<ItemDTO> items) {
+        MediaType type = request.headers().accept().contains(NDJSON) ? NDJSON : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok().contentType(type).body(items, ItemDTO.class);
+    }
+
+    private int after(ServerRequest request) {
+        return request.queryParam("after").map(ReactiveItemHandler::parseOrNull).orElse(0);
+    }
+
+    // missing, invalid or oversized limits stream max-limit items
+    private int limit(ServerRequest request) {
+        Integer limit = request.queryParam("limit").map(ReactiveItemHandler::parseOrNull).orElse(null);
+        return limit == null || limit <= 0 ? maxLimit : Math.min(limit, maxLimit);
+    }
+
+    private static Integer pathId(ServerRequest request, String name) {
+        return parseOrNull(request.pathVariable(name));
+    }
+
+    private static Integer parseOrNull(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Mono<ServerResponse> badRequest(String message) {
+        return ServerResponse.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ApiResponse<>(false, message, null));
+    }
+}
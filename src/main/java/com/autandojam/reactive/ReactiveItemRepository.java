@@ -0,0 +1,162 @@
+package com.autandojam.reactive;
+
+import com.autandojam.dto.ItemDTO;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// R2DBC counterpart of the InventoryItemRepository ItemDTO queries: the same
+// joined columns and filters, keyset-ordered. Listings run as a chain of
+// bounded page queries, each started only once the previous page has been
+// handed on, so a connection is held for one page at a time and a slow client
+// holds at most about two pages in memory rather than a connection or the
+// whole result.
+public class ReactiveItemRepository implements DisposableBean {
+
+    static final String ITEM_DTO_SELECT = "SELECT i.item_id, i.item_name, c.category_id, c.category_name, " +
+            "i.quantity, i.unit_price, i.total_value, i.description, i.location, i.sku, i.reorder_level, " +
+            "i.shortfall, u.full_name, i.created_at, i.updated_at " +
+            "FROM inventory_items i JOIN categories c ON c.category_id = i.category_id " +
+            "JOIN users u ON u.user_id = i.added_by";
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+    private final int fetchSize;
+    private final int pageSize;
+
+    public ReactiveItemRepository(ConnectionPool pool, int fetchSize, int pageSize) {
+        this.pool = pool;
+        this.client = DatabaseClient.create(pool);
+        this.fetchSize = fetchSize;
+        this.pageSize = pageSize;
+    }
+
+    public Mono<ItemDTO> findItemDTOById(Integer itemId) {
+        return client.sql(ITEM_DTO_SELECT + " WHERE i.item_id = :itemId")
+                .bind("itemId", itemId)
+                .map(ReactiveItemRepository::toItemDTO)
+                .one();
+    }
+
+    public Flux<ItemDTO> findItemDTOsAfterId(int afterId, int limit) {
+        return pages(limit, (last, size) -> list(
+                client.sql(ITEM_DTO_SELECT + " WHERE i.item_id > :afterId ORDER BY i.item_id LIMIT :limit")
+                        .bind("afterId", lastId(last, afterId))
+                        .bind("limit", size)));
+    }
+
+    public Flux<ItemDTO> findItemDTOsInCategoryAfterId(Integer categoryId, int afterId, int limit) {
+        return pages(limit, (last, size) -> list(
+                client.sql(ITEM_DTO_SELECT + " WHERE c.category_id = :categoryId AND i.item_id > :afterId " +
+                                "ORDER BY i.item_id LIMIT :limit")
+                        .bind("categoryId", categoryId)
+                        .bind("afterId", lastId(last, afterId))
+                        .bind("limit", size)));
+    }
+
+    public Flux<ItemDTO> searchItemDTOsByNameAfterId(String itemName, int afterId, int limit) {
+        return pages(limit, (last, size) -> list(
+                client.sql(ITEM_DTO_SELECT + " WHERE LOWER(i.item_name) LIKE LOWER(CONCAT('%', :itemName, '%')) " +
+                                "AND i.item_id > :afterId ORDER BY i.item_id LIMIT :limit")
+                        .bind("itemName", itemName)
+                        .bind("afterId", lastId(last, afterId))
+                        .bind("limit", size)));
+    }
+
+    // most urgent first, like the default /items/low-stock sort; pages continue
+    // after the last (shortfall, item id), so an item whose shortfall changes
+    // mid-listing can show up twice or not at all
+    public Flux<ItemDTO> findLowStockItemDTOs(int limit) {
+        return pages(limit, (last, size) -> last == null
+                ? list(client.sql(ITEM_DTO_SELECT + " WHERE i.shortfall >= 0 " +
+                                "ORDER BY i.shortfall DESC, i.item_id LIMIT :limit")
+                        .bind("limit", size))
+                : list(client.sql(ITEM_DTO_SELECT + " WHERE i.shortfall >= 0 AND (i.shortfall < :shortfall " +
+                                "OR (i.shortfall = :sameShortfall AND i.item_id > :afterId)) " +
+                                "ORDER BY i.shortfall DESC, i.item_id LIMIT :limit")
+                        .bind("shortfall", last.getShortfall())
+                        .bind("sameShortfall", last.getShortfall())
+                        .bind("afterId", last.getItemId())
+                        .bind("limit", size)));
+    }
+
+
+    // --------------------- PAGING -------------------------
+
+    // one page query: rows after `last` (null for the first page), at most `size`
+    @FunctionalInterface
+    private interface PageQuery {
+        Mono<List<ItemDTO>> find(ItemDTO last, int size);
+    }
+
+    private record Page(List<ItemDTO> items, int requested, int remaining) {
+        boolean hasNext() {
+            return items.size() == requested && remaining > 0;
+        }
+
+        ItemDTO last() {
+            return items.get(items.size() - 1);
+        }
+    }
+
+    private Flux<ItemDTO> pages(int limit, PageQuery query) {
+        if (limit <= 0) return Flux.empty();
+        return page(query, null, limit)
+                .expand(page -> page.hasNext() ? page(query, page.last(), page.remaining()) : Mono.empty())
+                // at most one page is queried ahead of the one being streamed
+                .concatMapIterable(Page::items, 1);
+    }
+
+    // expand subscribes to the next page before anyone requests it, and a
+    // subscribed query holds its connection until its rows are requested;
+    // running each page query to completion up front gives the connection
+    // straight back and leaves the rows waiting in memory instead
+    private Mono<Page> page(PageQuery query, ItemDTO last, int remaining) {
+        int size = Math.min(pageSize, remaining);
+        return Mono.defer(() -> Mono.fromFuture(query.find(last, size).toFuture()))
+                .map(items -> new Page(items, size, remaining - items.size()));
+    }
+
+    // reads the whole page and returns the connection before anything is emitted
+    private Mono<List<ItemDTO>> list(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.filter(statement -> statement.fetchSize(fetchSize))
+                .map(ReactiveItemRepository::toItemDTO)
+                .all()
+                .collectList();
+    }
+
+    private static int lastId(ItemDTO last, int afterId) {
+        return last == null ? afterId : last.getItemId();
+    }
+
+    private static ItemDTO toItemDTO(Readable row) {
+        return new ItemDTO(
+                row.get("item_id", Integer.class),
+                row.get("item_name", String.class),
+                row.get("category_id", Integer.class),
+                row.get("category_name", String.class),
+                row.get("quantity", Integer.class),
+                row.get("unit_price", BigDecimal.class),
+                row.get("total_value", BigDecimal.class),
+                row.get("description", String.class),
+                row.get("location", String.class),
+                row.get("sku", String.class),
+                row.get("reorder_level", Integer.class),
+                row.get("shortfall", Integer.class),
+                row.get("full_name", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
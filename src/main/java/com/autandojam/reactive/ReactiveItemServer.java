@@ -0,0 +1,63 @@
+package com.autandojam.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+
+// Reactor Netty server for the reactive items API, started and stopped with
+// the application context next to the servlet container. A fixed handful of
+// event-loop threads serves every connection; none is parked per request.
+public class ReactiveItemServer implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(ReactiveItemServer.class);
+
+    private final HttpHandler httpHandler;
+    private final int port;
+    private final int eventLoopThreads;
+    private final Duration idleTimeout;
+
+    private LoopResources loops;
+    private DisposableServer server;
+
+    public ReactiveItemServer(HttpHandler httpHandler, int port, int eventLoopThreads, Duration idleTimeout) {
+        this.httpHandler = httpHandler;
+        this.port = port;
+        this.eventLoopThreads = eventLoopThreads;
+        this.idleTimeout = idleTimeout;
+    }
+
+    @Override
+    public void start() {
+        loops = LoopResources.create("reactive-items", 1, eventLoopThreads, true);
+        server = HttpServer.create()
+                .port(port)
+                .runOn(loops)
+                .idleTimeout(idleTimeout)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+        log.info("Reactive items API listening on port {} with {} event-loop threads", server.port(), eventLoopThreads);
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow(Duration.ofSeconds(10));
+            server = null;
+        }
+        if (loops != null) {
+            loops.disposeLater().block(Duration.ofSeconds(10));
+            loops = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
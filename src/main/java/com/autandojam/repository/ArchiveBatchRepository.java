@@ -0,0 +1,56 @@
+package com.autandojam.repository;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Moves the oldest rows of a ledger table into its archive table, one chunk
+// per call. The caller owns the transaction, so a chunk is copied and
+// deleted atomically and locks are held only for that chunk. Chunk rows are
+// claimed with FOR UPDATE SKIP LOCKED, so archivers on several instances
+// take disjoint chunks instead of copying the same rows twice.
+@Repository
+@Timed(value = "inventory.repository.batch", histogram = true)
+public class ArchiveBatchRepository {
+    private static final String TRANSACTION_COLUMNS =
+            "transaction_id, item_id, transaction_type, quantity_change, reference_number, notes, performed_by, created_at";
+
+    private static final String ACTIVITY_COLUMNS =
+            "log_id, user_id, action, entity_type, entity_id, description, ip_address, created_at";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public int archiveStockTransactions(LocalDateTime cutoff, int limit) {
+        return move("stock_transactions", "stock_transactions_archive", "transaction_id",
+                TRANSACTION_COLUMNS, cutoff, limit);
+    }
+
+    public int archiveActivityLogs(LocalDateTime cutoff, int limit) {
+        return move("activity_logs", "activity_logs_archive", "log_id", ACTIVITY_COLUMNS, cutoff, limit);
+    }
+
+    private int move(String table, String archive, String idColumn, String columns, LocalDateTime cutoff, int limit) {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT " + idColumn + " FROM " + table + " WHERE created_at < ? ORDER BY created_at, " + idColumn +
+                " LIMIT ? FOR UPDATE SKIP LOCKED", Integer.class, Timestamp.valueOf(cutoff), limit);
+        if (ids.isEmpty()) return 0;
+
+        String in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(ids);
+
+        jdbcTemplate.update("INSERT INTO " + archive + " (" + columns + ", archived_at) SELECT " + columns +
+                ", ? FROM " + table + " WHERE " + idColumn + " IN (" + in + ")", args.toArray());
+        return jdbcTemplate.update("DELETE FROM " + table + " WHERE " + idColumn + " IN (" + in + ")",
+                ids.toArray());
+    }
+}
@@ -0,0 +1,42 @@
+package com.autandojam.repository;
+
+import com.autandojam.entity.ArchivedStockTransaction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedStockTransactionRepository extends JpaRepository<ArchivedStockTransaction, Integer> {
+    // archive counterparts of the StockTransactionRepository replay sums
+    @Query("SELECT COALESCE(SUM(CASE WHEN a.transactionType = com.autandojam.entity.TransactionType.OUT " +
+           "THEN -a.quantityChange ELSE a.quantityChange END), 0) FROM ArchivedStockTransaction a " +
+           "WHERE a.itemId = :itemId AND a.transactionId > :afterId AND a.transactionId <= :upToId " +
+           "AND a.createdAt <= :at")
+    Long sumChangesUpTo(@Param("itemId") Integer itemId,
+                        @Param("afterId") Integer afterId,
+                        @Param("upToId") Integer upToId,
+                        @Param("at") LocalDateTime at);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN a.transactionType = com.autandojam.entity.TransactionType.OUT " +
+           "THEN -a.quantityChange ELSE a.quantityChange END), 0) FROM ArchivedStockTransaction a " +
+           "WHERE a.itemId = :itemId AND a.transactionId <= :upToId AND a.createdAt > :at")
+    Long sumChangesAfter(@Param("itemId") Integer itemId,
+                         @Param("upToId") Integer upToId,
+                         @Param("at") LocalDateTime at);
+
+    // [item id, newest archived transaction id]
+    @Query("SELECT a.itemId, MAX(a.transactionId) FROM ArchivedStockTransaction a " +
+           "WHERE a.itemId IN :itemIds GROUP BY a.itemId")
+    List<Object[]> findLatestTransactionIds(@Param("itemIds") Collection<Integer> itemIds);
+
+    // the live rows go with the item through ON DELETE CASCADE; archived ones have no foreign key
+    @Modifying
+    @Query("DELETE FROM ArchivedStockTransaction a WHERE a.itemId = :itemId")
+    int deleteByItemId(@Param("itemId") Integer itemId);
+}
@@ -3,9 +3,13 @@ package com.autandojam.repository;
 import com.autandojam.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Integer> {
     Optional<Category> findByCategoryName(String categoryName);
+
+    List<Category> findByCategoryNameIn(Collection<String> categoryNames);
 }
@@ -1,17 +1,39 @@
 package com.autandojam.repository;
 
+import com.autandojam.dto.ItemDTO;
 import com.autandojam.entity.InventoryItem;
+import com.autandojam.search.SearchDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Integer> {
 
+    // selects exactly the ItemDTO columns in one joined query, skipping the
+    // entity load, the eager Category/User fetches and convertToDTO
+    String ITEM_DTO_SELECT = "SELECT new com.autandojam.dto.ItemDTO(i.itemId, i.itemName, c.categoryId, " +
+            "c.categoryName, i.quantity, i.unitPrice, i.totalValue, i.description, i.location, i.sku, " +
+            "i.reorderLevel, i.shortfall, u.fullName, i.createdAt, i.updatedAt) " +
+            "FROM InventoryItem i JOIN i.category c JOIN i.addedBy u";
+
     Page<InventoryItem> findByCategory_CategoryId(Integer categoryId, Pageable pageable);
 
     @Query("SELECT i FROM InventoryItem i WHERE LOWER(i.itemName) LIKE LOWER(CONCAT('%', ?1, '%'))")
@@ -20,5 +42,144 @@ public interface InventoryItemRepository extends JpaRepository<InventoryItem, In
     @Query("SELECT i FROM InventoryItem i WHERE i.quantity <= i.reorderLevel")
     List<InventoryItem> findLowStockItems();
 
-    List<InventoryItem> findBySku(String sku);
+    @Query(value = ITEM_DTO_SELECT,
+           countQuery = "SELECT COUNT(i) FROM InventoryItem i")
+    Page<ItemDTO> findAllItemDTOs(Pageable pageable);
+
+    @Query(value = ITEM_DTO_SELECT + " WHERE c.categoryId = :categoryId",
+           countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE i.category.categoryId = :categoryId")
+    Page<ItemDTO> findItemDTOsByCategory(@Param("categoryId") Integer categoryId, Pageable pageable);
+
+    @Query(value = ITEM_DTO_SELECT + " WHERE LOWER(i.itemName) LIKE LOWER(CONCAT('%', :itemName, '%'))",
+           countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE LOWER(i.itemName) LIKE LOWER(CONCAT('%', :itemName, '%'))")
+    Page<ItemDTO> searchItemDTOsByName(@Param("itemName") String itemName, Pageable pageable);
+
+    // keyset (seek) pages: callers pass PageRequest.of(0, size), so there is
+    // no OFFSET and, with a Slice, no count query
+
+    @Query(ITEM_DTO_SELECT + " WHERE i.itemId > :afterId ORDER BY i.itemId")
+    Slice<ItemDTO> findItemDTOsAfterId(@Param("afterId") Integer afterId, Pageable limit);
+
+    @Query(ITEM_DTO_SELECT + " WHERE i.itemName > :afterName " +
+           "OR (i.itemName = :afterName AND i.itemId > :afterId) ORDER BY i.itemName, i.itemId")
+    Slice<ItemDTO> findItemDTOsAfterName(@Param("afterName") String afterName,
+                                         @Param("afterId") Integer afterId,
+                                         Pageable limit);
+
+    @Query(ITEM_DTO_SELECT + " WHERE c.categoryId = :categoryId AND i.itemId > :afterId ORDER BY i.itemId")
+    Slice<ItemDTO> findItemDTOsInCategoryAfterId(@Param("categoryId") Integer categoryId,
+                                                 @Param("afterId") Integer afterId,
+                                                 Pageable limit);
+
+    @Query(ITEM_DTO_SELECT + " WHERE c.categoryId = :categoryId AND (i.itemName > :afterName " +
+           "OR (i.itemName = :afterName AND i.itemId > :afterId)) ORDER BY i.itemName, i.itemId")
+    Slice<ItemDTO> findItemDTOsInCategoryAfterName(@Param("categoryId") Integer categoryId,
+                                                   @Param("afterName") String afterName,
+                                                   @Param("afterId") Integer afterId,
+                                                   Pageable limit);
+
+    @Query(ITEM_DTO_SELECT + " WHERE LOWER(i.itemName) LIKE LOWER(CONCAT('%', :itemName, '%')) " +
+           "AND i.itemId > :afterId ORDER BY i.itemId")
+    Slice<ItemDTO> searchItemDTOsByNameAfterId(@Param("itemName") String itemName,
+                                               @Param("afterId") Integer afterId,
+                                               Pageable limit);
+
+    // forward-only read for exports; with useCursorFetch on the MySQL URL the
+    // driver pulls rows in fetch-size chunks instead of buffering the result.
+    // Must be consumed inside a transaction and closed.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query(ITEM_DTO_SELECT + " ORDER BY i.itemId")
+    Stream<ItemDTO> streamAllItemDTOs();
+
+    @Query(ITEM_DTO_SELECT + " WHERE i.itemId IN :itemIds")
+    List<ItemDTO> findItemDTOsByIds(@Param("itemIds") Collection<Integer> itemIds);
+
+    // read-only so ItemCache misses can be served by a replica
+    @Transactional(readOnly = true)
+    @Query(ITEM_DTO_SELECT + " WHERE i.itemId = :itemId")
+    Optional<ItemDTO> findItemDTOById(@Param("itemId") Integer itemId);
+
+    // SKU lookups while SkuIndex is still building
+    @Transactional(readOnly = true)
+    @Query(ITEM_DTO_SELECT + " WHERE i.sku = :sku")
+    Optional<ItemDTO> findItemDTOBySku(@Param("sku") String sku);
+
+    @Query(value = ITEM_DTO_SELECT + " WHERE i.shortfall >= 0",
+           countQuery = "SELECT COUNT(i) FROM InventoryItem i WHERE i.shortfall >= 0")
+    Page<ItemDTO> findLowStockItemDTOs(Pageable pageable);
+
+    @Query("SELECT COUNT(i) FROM InventoryItem i WHERE i.shortfall >= 0")
+    long countLowStock();
+
+    @Query("SELECT COALESCE(SUM(i.totalValue), 0) FROM InventoryItem i")
+    BigDecimal sumTotalValue();
+
+    // full recomputes for summary reconciliation: [key, item count, quantity, value]
+    @Query("SELECT CAST(i.category.categoryId AS string), COUNT(i), COALESCE(SUM(i.quantity), 0), "
+            + "COALESCE(SUM(i.totalValue), 0) FROM InventoryItem i GROUP BY i.category.categoryId")
+    List<Object[]> aggregateByCategory();
+
+    @Query("SELECT COALESCE(i.location, ''), COUNT(i), COALESCE(SUM(i.quantity), 0), "
+            + "COALESCE(SUM(i.totalValue), 0) FROM InventoryItem i GROUP BY COALESCE(i.location, '')")
+    List<Object[]> aggregateByLocation();
+
+    // single-key re-checks, run while reconciliation holds that summary row:
+    // [item count, quantity, value]
+    @Query("SELECT COUNT(i), COALESCE(SUM(i.quantity), 0), COALESCE(SUM(i.totalValue), 0) "
+            + "FROM InventoryItem i WHERE i.category.categoryId = :categoryId")
+    List<Object[]> aggregateCategory(@Param("categoryId") Integer categoryId);
+
+    @Query("SELECT COUNT(i), COALESCE(SUM(i.quantity), 0), COALESCE(SUM(i.totalValue), 0) "
+            + "FROM InventoryItem i WHERE i.location = :location")
+    List<Object[]> aggregateLocation(@Param("location") String location);
+
+    @Query("SELECT COUNT(i), COALESCE(SUM(i.quantity), 0), COALESCE(SUM(i.totalValue), 0) "
+            + "FROM InventoryItem i WHERE i.location IS NULL OR i.location = ''")
+    List<Object[]> aggregateWithoutLocation();
+
+    // stock writers update the item row before appending to the ledger, so a
+    // shared lock here waits out any movement in flight for these items
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT i FROM InventoryItem i WHERE i.itemId IN :itemIds ORDER BY i.itemId")
+    List<InventoryItem> lockForSnapshot(@Param("itemIds") Collection<Integer> itemIds);
+
+    // item edits take the row lock before reading, so a stock movement can't
+    // commit between the read and the save and be overwritten by the stale quantity
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.itemId = :itemId")
+    Optional<InventoryItem> lockById(@Param("itemId") Integer itemId);
+
+    // fills shortfall for rows written before the column existed
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.shortfall = i.reorderLevel - i.quantity WHERE i.shortfall IS NULL")
+    int backfillShortfall();
+
+    @Query("SELECT new com.autandojam.search.SearchDocument(i.itemId, i.itemName, i.sku, i.description, i.location) " +
+           "FROM InventoryItem i WHERE i.itemId > :afterId ORDER BY i.itemId")
+    List<SearchDocument> findSearchDocuments(@Param("afterId") Integer afterId, Pageable pageable);
+
+    @Query("SELECT i.sku FROM InventoryItem i WHERE i.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+
+    // single-statement read-modify-write; the row lock taken by UPDATE makes
+    // concurrent increments and guarded decrements safe without app-level locking.
+    // quantity is assigned last: MySQL evaluates SET left to right, so the
+    // derived columns must be computed from the old value first.
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.totalValue = i.unitPrice * (i.quantity + :quantity), " +
+           "i.shortfall = i.reorderLevel - (i.quantity + :quantity), i.updatedAt = :now, " +
+           "i.quantity = i.quantity + :quantity " +
+           "WHERE i.itemId = :itemId")
+    int incrementQuantity(@Param("itemId") Integer itemId,
+                          @Param("quantity") int quantity,
+                          @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE InventoryItem i SET i.totalValue = i.unitPrice * (i.quantity - :quantity), " +
+           "i.shortfall = i.reorderLevel - (i.quantity - :quantity), i.updatedAt = :now, " +
+           "i.quantity = i.quantity - :quantity " +
+           "WHERE i.itemId = :itemId AND i.quantity >= :quantity")
+    int decrementQuantityIfAvailable(@Param("itemId") Integer itemId,
+                                     @Param("quantity") int quantity,
+                                     @Param("now") LocalDateTime now);
 }
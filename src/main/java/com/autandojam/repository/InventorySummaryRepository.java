@@ -0,0 +1,59 @@
+package com.autandojam.repository;
+
+import com.autandojam.entity.InventorySummary;
+import com.autandojam.entity.SummaryDimension;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventorySummaryRepository extends JpaRepository<InventorySummary, Integer> {
+    List<InventorySummary> findByDimensionOrderByDimensionKey(SummaryDimension dimension);
+
+    // reconciliation holds one row while it re-checks that key, so deltas for
+    // the key queue behind it and land on top of the repaired values
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventorySummary s WHERE s.dimension = :dimension AND s.dimensionKey = :dimensionKey")
+    Optional<InventorySummary> lockOne(@Param("dimension") SummaryDimension dimension,
+                                       @Param("dimensionKey") String dimensionKey);
+
+    // The common case once a key has a row. A plain UPDATE on the unique key
+    // takes only that row's record lock; the upsert below also takes a
+    // next-key lock on the unique index, which piles up writers on hot rows.
+    @Modifying
+    @Query(value = "UPDATE inventory_summaries SET item_count = item_count + :itemCount, "
+            + "total_quantity = total_quantity + :quantity, total_value = total_value + :value, updated_at = :now "
+            + "WHERE dimension = :dimension AND dimension_key = :dimensionKey",
+            nativeQuery = true)
+    int addDelta(@Param("dimension") String dimension,
+                 @Param("dimensionKey") String dimensionKey,
+                 @Param("itemCount") long itemCount,
+                 @Param("quantity") long quantity,
+                 @Param("value") BigDecimal value,
+                 @Param("now") LocalDateTime now);
+
+    // creates the row on first use; VALUES() is MySQL's upsert syntax, also accepted by H2 in MySQL mode
+    @Modifying
+    @Query(value = "INSERT INTO inventory_summaries (dimension, dimension_key, item_count, total_quantity, total_value, updated_at) "
+            + "VALUES (:dimension, :dimensionKey, :itemCount, :quantity, :value, :now) "
+            + "ON DUPLICATE KEY UPDATE item_count = item_count + VALUES(item_count), "
+            + "total_quantity = total_quantity + VALUES(total_quantity), "
+            + "total_value = total_value + VALUES(total_value), "
+            + "updated_at = VALUES(updated_at)",
+            nativeQuery = true)
+    int applyDelta(@Param("dimension") String dimension,
+                   @Param("dimensionKey") String dimensionKey,
+                   @Param("itemCount") long itemCount,
+                   @Param("quantity") long quantity,
+                   @Param("value") BigDecimal value,
+                   @Param("now") LocalDateTime now);
+}
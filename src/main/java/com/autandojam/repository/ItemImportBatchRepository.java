@@ -0,0 +1,93 @@
+package com.autandojam.repository;
+
+import com.autandojam.entity.InventoryItem;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Item import writes through JDBC for the same reason as StockBatchRepository:
+// IDENTITY keys make Hibernate insert one row per round trip. The generated
+// ids come back from the batch itself and are set on the items.
+@Repository
+@Timed(value = "inventory.repository.batch", histogram = true)
+public class ItemImportBatchRepository {
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO inventory_items (item_name, category_id, quantity, unit_price, total_value, description, " +
+            "location, sku, reorder_level, shortfall, added_by, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_SNAPSHOT =
+            "INSERT INTO stock_snapshots (item_id, quantity, last_transaction_id, taken_at) VALUES (?, ?, 0, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // items must carry createdAt/updatedAt and the derived totalValue/shortfall
+    public void insertItems(List<InventoryItem> items) {
+        if (items.isEmpty()) return;
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_ITEM, new String[] {"item_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        InventoryItem item = items.get(i);
+                        ps.setString(1, item.getItemName());
+                        ps.setInt(2, item.getCategory().getCategoryId());
+                        ps.setInt(3, item.getQuantity());
+                        ps.setBigDecimal(4, item.getUnitPrice());
+                        ps.setBigDecimal(5, item.getTotalValue());
+                        ps.setString(6, item.getDescription());
+                        ps.setString(7, item.getLocation());
+                        ps.setString(8, item.getSku());
+                        ps.setInt(9, item.getReorderLevel());
+                        if (item.getShortfall() != null) ps.setInt(10, item.getShortfall());
+                        else ps.setNull(10, Types.INTEGER);
+                        ps.setInt(11, item.getAddedBy().getUserId());
+                        ps.setTimestamp(12, Timestamp.valueOf(item.getCreatedAt()));
+                        ps.setTimestamp(13, Timestamp.valueOf(item.getUpdatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != items.size()) {
+            throw new IllegalStateException("Expected " + items.size() + " generated item ids, got " + generated.size());
+        }
+        for (int i = 0; i < items.size(); i++) {
+            Number id = (Number) generated.get(i).values().iterator().next();
+            items.get(i).setItemId(id.intValue());
+        }
+    }
+
+    // the same baseline StockLedgerService.recordOpeningSnapshot writes for one item
+    public void insertOpeningSnapshots(List<InventoryItem> items, LocalDateTime takenAt) {
+        if (items.isEmpty()) return;
+
+        Timestamp at = Timestamp.valueOf(takenAt);
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT, items, items.size(), (ps, item) -> {
+            ps.setInt(1, item.getItemId());
+            ps.setInt(2, item.getQuantity());
+            ps.setTimestamp(3, at);
+        });
+    }
+}
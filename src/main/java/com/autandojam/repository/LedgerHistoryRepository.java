@@ -0,0 +1,116 @@
+package com.autandojam.repository;
+
+import com.autandojam.dto.ActivityLogDTO;
+import com.autandojam.dto.StockTransactionDTO;
+import com.autandojam.entity.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Newest-first history that spans the live ledger tables and their archives.
+// The archiver only moves rows older than everything it leaves behind, so a
+// page is the live rows followed by the archived ones and the archive is
+// only read once a page runs past the end of the live rows.
+@Repository
+public class LedgerHistoryRepository {
+    private static final String TRANSACTION_SELECT =
+            "SELECT t.transaction_id, t.item_id, t.transaction_type, t.quantity_change, t.reference_number, " +
+            "t.notes, u.full_name, t.created_at FROM %s t LEFT JOIN users u ON u.user_id = t.performed_by " +
+            "WHERE t.item_id = ? ORDER BY t.created_at DESC, t.transaction_id DESC LIMIT ? OFFSET ?";
+
+    private static final String ACTIVITY_SELECT =
+            "SELECT l.log_id, l.user_id, l.action, l.entity_type, l.entity_id, l.description, l.ip_address, " +
+            "l.created_at FROM %s l WHERE l.user_id = ? ORDER BY l.created_at DESC, l.log_id DESC LIMIT ? OFFSET ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+
+    // --------------------- STOCK TRANSACTIONS -------------------------
+
+    public Page<StockTransactionDTO> findTransactionsByItem(Integer itemId, Pageable pageable) {
+        return page(pageable,
+                count("SELECT COUNT(*) FROM stock_transactions WHERE item_id = ?", itemId),
+                count("SELECT COUNT(*) FROM stock_transactions_archive WHERE item_id = ?", itemId),
+                (limit, offset) -> jdbcTemplate.query(TRANSACTION_SELECT.formatted("stock_transactions"),
+                        transactionMapper(false), itemId, limit, offset),
+                (limit, offset) -> jdbcTemplate.query(TRANSACTION_SELECT.formatted("stock_transactions_archive"),
+                        transactionMapper(true), itemId, limit, offset));
+    }
+
+    private RowMapper<StockTransactionDTO> transactionMapper(boolean archived) {
+        return (rs, rowNum) -> StockTransactionDTO.builder()
+                .transactionId(rs.getInt(1))
+                .itemId(rs.getInt(2))
+                .transactionType(TransactionType.valueOf(rs.getString(3)))
+                .quantityChange(rs.getInt(4))
+                .referenceNumber(rs.getString(5))
+                .notes(rs.getString(6))
+                .performedBy(rs.getString(7))
+                .createdAt(rs.getTimestamp(8).toLocalDateTime())
+                .archived(archived)
+                .build();
+    }
+
+
+    // --------------------- ACTIVITY LOGS -------------------------
+
+    public Page<ActivityLogDTO> findActivityByUser(Integer userId, Pageable pageable) {
+        return page(pageable,
+                count("SELECT COUNT(*) FROM activity_logs WHERE user_id = ?", userId),
+                count("SELECT COUNT(*) FROM activity_logs_archive WHERE user_id = ?", userId),
+                (limit, offset) -> jdbcTemplate.query(ACTIVITY_SELECT.formatted("activity_logs"),
+                        activityMapper(false), userId, limit, offset),
+                (limit, offset) -> jdbcTemplate.query(ACTIVITY_SELECT.formatted("activity_logs_archive"),
+                        activityMapper(true), userId, limit, offset));
+    }
+
+    private RowMapper<ActivityLogDTO> activityMapper(boolean archived) {
+        return (rs, rowNum) -> ActivityLogDTO.builder()
+                .logId(rs.getInt(1))
+                .userId(rs.getInt(2))
+                .action(rs.getString(3))
+                .entityType(rs.getString(4))
+                .entityId((Integer) rs.getObject(5))
+                .description(rs.getString(6))
+                .ipAddress(rs.getString(7))
+                .createdAt(rs.getTimestamp(8).toLocalDateTime())
+                .archived(archived)
+                .build();
+    }
+
+
+    // --------------------- HELPERS -------------------------
+
+    private interface RowRange<T> {
+        List<T> fetch(int limit, long offset);
+    }
+
+    private <T> Page<T> page(Pageable pageable, long liveCount, long archivedCount,
+                             RowRange<T> live, RowRange<T> archived) {
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<T> content = new ArrayList<>(size);
+
+        if (offset < liveCount) {
+            content.addAll(live.fetch(size, offset));
+        }
+        int remaining = size - content.size();
+        if (remaining > 0 && archivedCount > 0 && offset + size > liveCount) {
+            content.addAll(archived.fetch(remaining, Math.max(0, offset - liveCount)));
+        }
+        return new PageImpl<>(content, pageable, liveCount + archivedCount);
+    }
+
+    private long count(String sql, Integer id) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, id);
+        return count == null ? 0 : count;
+    }
+}
@@ -0,0 +1,146 @@
+package com.autandojam.repository;
+
+import com.autandojam.dto.StockMovementLine;
+import com.autandojam.entity.ActivityLog;
+import com.autandojam.entity.StockTransaction;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// IDENTITY keys stop Hibernate from batching these inserts, so bulk paths
+// write the ledger rows through JDBC inside the caller's JPA transaction.
+@Repository
+@Timed(value = "inventory.repository.batch", histogram = true)
+public class StockBatchRepository {
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO stock_transactions (item_id, transaction_type, quantity_change, reference_number, " +
+            "notes, performed_by, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACTIVITY_LOG =
+            "INSERT INTO activity_logs (user_id, action, entity_type, entity_id, description, ip_address, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // same guarded statement as InventoryItemRepository.decrementQuantityIfAvailable,
+    // so concurrent single-item and bulk movements never lose an update;
+    // quantity goes last because MySQL evaluates SET left to right
+    private static final String APPLY_QUANTITY_CHANGE =
+            "UPDATE inventory_items SET total_value = unit_price * (quantity + ?), " +
+            "shortfall = reorder_level - (quantity + ?), updated_at = ?, quantity = quantity + ? " +
+            "WHERE item_id = ? AND quantity + ? >= 0";
+
+    private static final String LOCK_QUANTITIES =
+            "SELECT item_id, quantity FROM inventory_items WHERE item_id IN (%s) ORDER BY item_id FOR UPDATE";
+
+    private static final String SELECT_QUANTITIES =
+            "SELECT item_id, quantity FROM inventory_items WHERE item_id IN (%s)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Locks the rows in id order and returns itemId -> quantity; missing items
+    // are absent. Every bulk movement locks in the same order, so two notes
+    // touching the same items in a different order queue instead of deadlocking.
+    public Map<Integer, Integer> lockQuantities(Collection<Integer> itemIds) {
+        List<Integer> sorted = itemIds.stream().sorted().distinct().toList();
+        Map<Integer, Integer> quantities = new TreeMap<>();
+        for (int from = 0; from < sorted.size(); from += BATCH_SIZE) {
+            quantities.putAll(quantities(LOCK_QUANTITIES, sorted.subList(from, Math.min(from + BATCH_SIZE, sorted.size()))));
+        }
+        return quantities;
+    }
+
+    // Applies one net change per item, in id order, to rows the caller locked
+    // with lockQuantities and checked against; expectedQuantities is each
+    // item's quantity afterwards. With rewriteBatchedStatements the driver may
+    // report SUCCESS_NO_INFO instead of a count, so those rows are read back.
+    public void applyQuantityChanges(SortedMap<Integer, Integer> changes, Map<Integer, Integer> expectedQuantities) {
+        if (changes.isEmpty()) return;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Map.Entry<Integer, Integer>> entries = new ArrayList<>(changes.entrySet());
+
+        int[][] batches = jdbcTemplate.batchUpdate(APPLY_QUANTITY_CHANGE, entries, BATCH_SIZE, (ps, entry) -> {
+            int change = entry.getValue();
+            ps.setInt(1, change);
+            ps.setInt(2, change);
+            ps.setTimestamp(3, now);
+            ps.setInt(4, change);
+            ps.setInt(5, entry.getKey());
+            ps.setInt(6, change);
+        });
+
+        List<Integer> unreported = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : batches) {
+            for (int count : batch) {
+                Integer itemId = entries.get(index++).getKey();
+                if (count == Statement.SUCCESS_NO_INFO) {
+                    unreported.add(itemId);
+                } else if (count != 1) {
+                    // EXECUTE_FAILED, or a guard that refused a change checked under the lock
+                    throw new IllegalStateException("Stock change for item " + itemId + " was not applied (count " + count + ")");
+                }
+            }
+        }
+
+        for (int from = 0; from < unreported.size(); from += BATCH_SIZE) {
+            quantities(SELECT_QUANTITIES, unreported.subList(from, Math.min(from + BATCH_SIZE, unreported.size())))
+                    .forEach((itemId, quantity) -> {
+                        if (!quantity.equals(expectedQuantities.get(itemId))) {
+                            throw new IllegalStateException("Stock change for item " + itemId
+                                    + " left quantity " + quantity + ", expected " + expectedQuantities.get(itemId));
+                        }
+                    });
+        }
+    }
+
+    private Map<Integer, Integer> quantities(String sql, List<Integer> itemIds) {
+        String placeholders = String.join(", ", Collections.nCopies(itemIds.size(), "?"));
+        Map<Integer, Integer> quantities = new LinkedHashMap<>();
+        jdbcTemplate.query(String.format(sql, placeholders),
+                rs -> { quantities.put(rs.getInt("item_id"), rs.getInt("quantity")); },
+                itemIds.toArray());
+        return quantities;
+    }
+
+    public void insertTransactions(List<StockTransaction> transactions) {
+        if (transactions.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, transactions, BATCH_SIZE, (ps, tx) -> {
+            ps.setInt(1, tx.getItem().getItemId());
+            ps.setString(2, tx.getTransactionType().name());
+            ps.setInt(3, tx.getQuantityChange());
+            ps.setString(4, tx.getReferenceNumber());
+            ps.setString(5, tx.getNotes());
+            ps.setInt(6, tx.getPerformedBy().getUserId());
+            ps.setTimestamp(7, timestamp(tx.getCreatedAt()));
+        });
+    }
+
+    public void insertActivityLogs(List<ActivityLog> logs) {
+        if (logs.isEmpty()) return;
+
+        jdbcTemplate.batchUpdate(INSERT_ACTIVITY_LOG, logs, BATCH_SIZE, (ps, log) -> {
+            ps.setInt(1, log.getUser().getUserId());
+            ps.setString(2, log.getAction());
+            ps.setString(3, log.getEntityType());
+            if (log.getEntityId() != null) ps.setInt(4, log.getEntityId());
+            else ps.setNull(4, Types.INTEGER);
+            ps.setString(5, log.getDescription());
+            ps.setString(6, log.getIpAddress());
+            ps.setTimestamp(7, timestamp(log.getCreatedAt()));
+        });
+    }
+
+    private Timestamp timestamp(LocalDateTime time) {
+        return Timestamp.valueOf(time != null ? time : LocalDateTime.now());
+    }
+}
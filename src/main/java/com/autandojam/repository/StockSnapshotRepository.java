@@ -0,0 +1,22 @@
+package com.autandojam.repository;
+
+import com.autandojam.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+    Optional<StockSnapshot> findFirstByItemItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(Integer itemId, LocalDateTime at);
+
+    Optional<StockSnapshot> findFirstByItemItemIdAndTakenAtAfterOrderByTakenAtAsc(Integer itemId, LocalDateTime at);
+
+    // items from before snapshots existed; they get a baseline on the first run
+    @Query("SELECT i.itemId FROM InventoryItem i WHERE NOT EXISTS " +
+           "(SELECT 1 FROM StockSnapshot s WHERE s.item = i)")
+    List<Integer> findItemIdsWithoutSnapshot();
+}
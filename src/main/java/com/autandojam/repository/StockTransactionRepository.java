@@ -1,14 +1,56 @@
 package com.autandojam.repository;
 
 import com.autandojam.entity.StockTransaction;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface StockTransactionRepository extends JpaRepository<StockTransaction, Integer> {
-    Page<StockTransaction> findByItemItemId(Integer itemId, Pageable pageable); // fixed nested property
-    List<StockTransaction> findByItemItemIdOrderByCreatedAtDesc(Integer itemId); // fixed nested property
+    // item history spans the archive too: LedgerHistoryRepository.findTransactionsByItem
+
+    // --------------------- LEDGER REPLAY -------------------------
+    // OUT rows store a positive quantity; IN and ADJUSTMENT are applied as signed
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType = com.autandojam.entity.TransactionType.OUT " +
+           "THEN -t.quantityChange ELSE t.quantityChange END), 0) FROM StockTransaction t " +
+           "WHERE t.item.itemId = :itemId AND t.transactionId > :afterId AND t.transactionId <= :upToId " +
+           "AND t.createdAt <= :at")
+    Long sumChangesUpTo(@Param("itemId") Integer itemId,
+                        @Param("afterId") Integer afterId,
+                        @Param("upToId") Integer upToId,
+                        @Param("at") LocalDateTime at);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.transactionType = com.autandojam.entity.TransactionType.OUT " +
+           "THEN -t.quantityChange ELSE t.quantityChange END), 0) FROM StockTransaction t " +
+           "WHERE t.item.itemId = :itemId AND t.transactionId <= :upToId AND t.createdAt > :at")
+    Long sumChangesAfter(@Param("itemId") Integer itemId,
+                         @Param("upToId") Integer upToId,
+                         @Param("at") LocalDateTime at);
+
+    // --------------------- SNAPSHOT JOB -------------------------
+
+    @Query("SELECT COALESCE(MAX(t.transactionId), 0) FROM StockTransaction t")
+    Integer findMaxTransactionId();
+
+    @Query("SELECT DISTINCT t.item.itemId FROM StockTransaction t WHERE t.transactionId > :afterId " +
+           "AND t.transactionId <= :upToId")
+    List<Integer> findItemIdsWithTransactionsBetween(@Param("afterId") Integer afterId,
+                                                     @Param("upToId") Integer upToId);
+
+    // [item id, rows since the item's latest snapshot, newest transaction id]
+    @Query("SELECT t.item.itemId, COUNT(t), MAX(t.transactionId) FROM StockTransaction t " +
+           "WHERE t.item.itemId IN :itemIds AND t.transactionId > COALESCE(" +
+           "(SELECT MAX(s.lastTransactionId) FROM StockSnapshot s WHERE s.item = t.item), 0) " +
+           "GROUP BY t.item.itemId")
+    List<Object[]> findUnsnapshottedActivity(@Param("itemIds") Collection<Integer> itemIds);
+
+    // [item id, newest transaction id]
+    @Query("SELECT t.item.itemId, MAX(t.transactionId) FROM StockTransaction t " +
+           "WHERE t.item.itemId IN :itemIds GROUP BY t.item.itemId")
+    List<Object[]> findLatestTransactionIds(@Param("itemIds") Collection<Integer> itemIds);
 }
@@ -0,0 +1,110 @@
+package com.autandojam.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Startup build shared by the in-memory item indexes. Rows are loaded in
+// keyset batches on a daemon thread while committed events keep being
+// applied; rows an event touched during the build are not overwritten with
+// the older copy the build read. A failed build is logged and retried.
+public abstract class BackgroundIndex<T> {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(getClass());
+    private final String name;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Value("${inventory.index.rebuild-retry-delay:30s}")
+    private Duration retryDelay;
+
+    // guarded by exclusively()
+    private final Set<Integer> touchedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    protected BackgroundIndex(String name) {
+        this.name = name;
+    }
+
+    // next batch of rows with id > afterId, in id order
+    protected abstract List<T> loadAfter(int afterId, int batchSize);
+
+    protected abstract Integer idOf(T row);
+
+    // called inside exclusively()
+    protected abstract void index(T row);
+
+    // runs the action under the lock that guards the index contents
+    protected abstract void exclusively(Runnable action);
+
+
+    // --------------------- LIFECYCLE -------------------------
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        startBuild();
+    }
+
+    private void startBuild() {
+        Thread builder = new Thread(this::rebuild, name + "-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        exclusively(() -> {
+            building = true;
+            touchedDuringBuild.clear();
+        });
+
+        int indexed = 0;
+        try {
+            int afterId = 0;
+            while (true) {
+                List<T> batch = loadAfter(afterId, LOAD_BATCH_SIZE);
+                if (batch.isEmpty()) break;
+
+                exclusively(() -> batch.stream()
+                        .filter(row -> !touchedDuringBuild.contains(idOf(row)))
+                        .forEach(this::index));
+                afterId = idOf(batch.get(batch.size() - 1));
+                indexed += batch.size();
+                if (batch.size() < LOAD_BATCH_SIZE) break;
+            }
+            ready = true;
+            log.info("{} index built: {} items in {} ms", name, indexed, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            // callers fall back to the database until a build completes
+            log.error("{} index build failed after {} items, retrying in {}", name, indexed, retryDelay, e);
+            taskScheduler.schedule(this::startBuild, Instant.now().plus(retryDelay));
+        } finally {
+            exclusively(() -> {
+                building = false;
+                touchedDuringBuild.clear();
+            });
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // called by event listeners inside exclusively(), before applying the event
+    protected void markTouched(Integer itemId) {
+        if (building) touchedDuringBuild.add(itemId);
+    }
+}
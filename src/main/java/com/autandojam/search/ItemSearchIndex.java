@@ -0,0 +1,473 @@
+package com.autandojam.search;
+
+import com.autandojam.event.InventoryItemEvent;
+import com.autandojam.repository.InventoryItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory inverted index over itemName, sku, location and description.
+// Name, sku and location are indexed by word prefix (search-as-you-type) and
+// name/sku also by trigram so infix matches keep working like the old LIKE
+// query. Description words are indexed whole to keep the index small.
+// Postings are grouped by weight and kept in itemId order, so a ranked read
+// walks candidates best-first and stops once the page can't change.
+@Component
+public class ItemSearchIndex extends BackgroundIndex<SearchDocument> {
+    private static final int MAX_PREFIX_LENGTH = 20;
+    // an infix fragment is looked for in at most this many items (lowest ids first)
+    private static final int MAX_INFIX_CANDIDATES = 10000;
+
+    private static final float NAME_WEIGHT = 8f;
+    private static final float SKU_WEIGHT = 6f;
+    private static final float LOCATION_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float PARTIAL_WORD_FACTOR = 0.5f;
+    private static final float INFIX_WEIGHT = 1.5f;
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Posting> termPostings = new HashMap<>();
+    // trigram -> itemIds, for infix matches against name + sku
+    private final Map<String, NavigableSet<Integer>> trigramPostings = new HashMap<>();
+    // itemId -> what was indexed for it, so updates and deletes can retract it
+    private final Map<Integer, IndexedTerms> documents = new HashMap<>();
+
+    public ItemSearchIndex() {
+        super("search");
+    }
+
+
+    // --------------------- LIFECYCLE -------------------------
+
+    @Override
+    protected List<SearchDocument> loadAfter(int afterId, int batchSize) {
+        return itemRepository.findSearchDocuments(afterId, PageRequest.of(0, batchSize));
+    }
+
+    @Override
+    protected Integer idOf(SearchDocument doc) {
+        return doc.getItemId();
+    }
+
+    @Override
+    protected void index(SearchDocument doc) {
+        put(doc);
+    }
+
+    @Override
+    protected void exclusively(Runnable action) {
+        withWriteLock(action);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemEvent event) {
+        if (event.getType() == InventoryItemEvent.Type.STOCK_CHANGED) return;
+
+        withWriteLock(() -> {
+            markTouched(event.getItemId());
+
+            if (event.getType() == InventoryItemEvent.Type.DELETED) {
+                remove(event.getItemId());
+            } else {
+                put(SearchDocument.from(event.getItem()));
+            }
+        });
+    }
+
+
+    // --------------------- QUERY -------------------------
+
+    // ranking order: best score first, then lowest itemId
+    private static final Comparator<SearchHit> RANKING =
+            Comparator.comparing(SearchHit::getScore).reversed().thenComparing(SearchHit::getItemId);
+
+    // Every query word must match (prefix, whole description word, or infix
+    // of name/sku). Results are ranked by summed field weight, then itemId.
+    public Page<Integer> search(String query, Pageable pageable) {
+        List<Integer> pageIds = new ArrayList<>();
+        long total;
+
+        lock.readLock().lock();
+        try {
+            List<WordMatch> words = plan(query);
+            // only the hits up to the end of the requested page need ranking
+            int wanted = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), Integer.MAX_VALUE);
+            List<SearchHit> ranked = topHits(words, null, wanted);
+            for (int i = (int) Math.min(pageable.getOffset(), ranked.size()); i < ranked.size(); i++) {
+                pageIds.add(ranked.get(i).getItemId());
+            }
+            total = count(words);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new PageImpl<>(pageIds, pageable, total);
+    }
+
+    // Keyset variant: the next `limit` hits ranked after (afterScore, afterId).
+    public List<SearchHit> searchAfter(String query, Float afterScore, Integer afterId, int limit) {
+        SearchHit cursor = afterScore == null ? null : new SearchHit(afterId, afterScore);
+        lock.readLock().lock();
+        try {
+            return topHits(plan(query), cursor, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // one matcher per query word, the one with the fewest candidates first;
+    // empty when the query has no words or one of them matches nothing
+    private List<WordMatch> plan(String query) {
+        List<WordMatch> words = new ArrayList<>();
+        for (String word : tokenize(query)) {
+            WordMatch match = new WordMatch(word);
+            if (match.candidates() == 0) return List.of();
+            words.add(match);
+        }
+        words.sort(Comparator.comparingInt(WordMatch::candidates));
+        return words;
+    }
+
+    // The best `limit` hits ranked after the cursor. Candidates come from the
+    // first word only, best weight first and in itemId order within a weight;
+    // the other words are looked up per candidate. Once the heap is full and
+    // its worst hit outranks anything the remaining candidates could score,
+    // the scan stops.
+    private List<SearchHit> topHits(List<WordMatch> words, SearchHit cursor, int limit) {
+        if (limit <= 0 || words.isEmpty()) return new ArrayList<>();
+
+        WordMatch driver = words.get(0);
+        float othersBest = 0;
+        for (int i = 1; i < words.size(); i++) othersBest += words.get(i).bestWeight();
+
+        PriorityQueue<SearchHit> best = new PriorityQueue<>(Math.min(limit, driver.candidates()) + 1, RANKING.reversed());
+        for (float weight : driver.weights()) {
+            float bound = weight + othersBest;
+            if (best.size() == limit && best.peek().getScore() > bound) break;
+
+            for (Integer itemId : driver.candidates(weight)) {
+                SearchHit worst = best.size() == limit ? best.peek() : null;
+                // ids only grow within a weight, so nothing later in it can place
+                if (worst != null && (worst.getScore() > bound
+                        || worst.getScore() == bound && worst.getItemId() < itemId)) break;
+
+                float score = score(words, itemId, weight);
+                if (score < 0) continue;
+                SearchHit hit = new SearchHit(itemId, score);
+                if (cursor != null && RANKING.compare(hit, cursor) <= 0) continue;
+
+                best.add(hit);
+                if (best.size() > limit) best.poll();
+            }
+        }
+
+        List<SearchHit> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    // summed weight, or -1 when the candidate doesn't score `driverWeight` for
+    // the first word (it is visited under its own weight) or misses another word
+    private float score(List<WordMatch> words, Integer itemId, float driverWeight) {
+        if (words.get(0).weight(itemId) != driverWeight) return -1;
+        float score = driverWeight;
+        for (int i = 1; i < words.size(); i++) {
+            float weight = words.get(i).weight(itemId);
+            if (weight == 0) return -1;
+            score += weight;
+        }
+        return score;
+    }
+
+    // Total for offset pages. A single word adds its infix-only matches to
+    // the posting size; several words are checked per candidate of the first.
+    private long count(List<WordMatch> words) {
+        if (words.isEmpty()) return 0;
+
+        WordMatch driver = words.get(0);
+        long total = 0;
+        if (words.size() == 1) {
+            total = driver.posting == null ? 0 : driver.posting.size();
+            if (driver.infix) {
+                for (Integer itemId : driver.infixCandidates()) {
+                    boolean inPosting = driver.posting != null && driver.posting.weight(itemId) > 0;
+                    if (!inPosting && driver.weight(itemId) > 0) total++;
+                }
+            }
+            return total;
+        }
+
+        for (float weight : driver.weights()) {
+            for (Integer itemId : driver.candidates(weight)) {
+                if (score(words, itemId, weight) >= 0) total++;
+            }
+        }
+        return total;
+    }
+
+    // One query word: its prefix / description-word posting and, from three
+    // characters on, infix matches in name + sku.
+    private final class WordMatch {
+        private final String word;
+        private final Posting posting;
+        private final boolean infix;
+        // the rarest trigram's posting, cut at MAX_INFIX_CANDIDATES; every infix
+        // match is in it
+        private final NavigableSet<Integer> trigramCandidates;
+        private final int candidates;
+
+        WordMatch(String word) {
+            this.word = word;
+            this.posting = termPostings.get(truncate(word));
+            this.infix = word.length() >= 3;
+
+            NavigableSet<Integer> rarest = infix ? rarestTrigramPosting(word) : Collections.emptyNavigableSet();
+            this.trigramCandidates = firstIds(rarest, MAX_INFIX_CANDIDATES);
+            this.candidates = (posting == null ? 0 : posting.size()) + Math.min(rarest.size(), MAX_INFIX_CANDIDATES);
+        }
+
+        int candidates() {
+            return candidates;
+        }
+
+        float bestWeight() {
+            float best = posting == null ? 0 : posting.bestWeight();
+            return trigramCandidates.isEmpty() ? best : Math.max(best, INFIX_WEIGHT);
+        }
+
+        // distinct weights a candidate can score for this word, best first
+        List<Float> weights() {
+            TreeSet<Float> weights = new TreeSet<>(Comparator.reverseOrder());
+            if (posting != null) weights.addAll(posting.tiers.keySet());
+            if (!trigramCandidates.isEmpty()) weights.add(INFIX_WEIGHT);
+            return new ArrayList<>(weights);
+        }
+
+        // items that may score `weight`, in itemId order; score() filters out the
+        // ones that actually score another weight
+        Iterable<Integer> candidates(float weight) {
+            Set<Integer> tier = posting == null ? null : posting.tiers.get(weight);
+            if (weight != INFIX_WEIGHT || trigramCandidates.isEmpty()) {
+                return tier == null ? Collections.emptySet() : tier;
+            }
+            return tier == null ? infixCandidates() : () -> new MergedIterator(tier.iterator(), infixCandidates().iterator());
+        }
+
+        Iterable<Integer> infixCandidates() {
+            return trigramCandidates;
+        }
+
+        // 0 when the word doesn't match the item
+        float weight(Integer itemId) {
+            float weight = posting == null ? 0 : posting.weight(itemId);
+            if (weight < INFIX_WEIGHT && trigramCandidates.contains(itemId)
+                    && documents.get(itemId).infixText.contains(word)) {
+                weight = INFIX_WEIGHT;
+            }
+            return weight;
+        }
+    }
+
+    private NavigableSet<Integer> rarestTrigramPosting(String word) {
+        NavigableSet<Integer> rarest = null;
+        for (String trigram : trigrams(word)) {
+            NavigableSet<Integer> posting = trigramPostings.get(trigram);
+            if (posting == null) return Collections.emptyNavigableSet();
+            if (rarest == null || posting.size() < rarest.size()) rarest = posting;
+        }
+        return rarest == null ? Collections.emptyNavigableSet() : rarest;
+    }
+
+    // a view of the `limit` lowest ids, not a copy
+    private static NavigableSet<Integer> firstIds(NavigableSet<Integer> ids, int limit) {
+        if (ids.size() <= limit) return ids;
+
+        Iterator<Integer> it = ids.iterator();
+        for (int i = 1; i < limit; i++) it.next();
+        return ids.headSet(it.next(), true);
+    }
+
+    // merges two ascending id iterators, dropping duplicates
+    private static final class MergedIterator implements Iterator<Integer> {
+        private final Iterator<Integer> left;
+        private final Iterator<Integer> right;
+        private Integer nextLeft;
+        private Integer nextRight;
+
+        MergedIterator(Iterator<Integer> left, Iterator<Integer> right) {
+            this.left = left;
+            this.right = right;
+            nextLeft = left.hasNext() ? left.next() : null;
+            nextRight = right.hasNext() ? right.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextLeft != null || nextRight != null;
+        }
+
+        @Override
+        public Integer next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Integer next;
+            if (nextRight == null || nextLeft != null && nextLeft < nextRight) {
+                next = nextLeft;
+                nextLeft = left.hasNext() ? left.next() : null;
+            } else {
+                next = nextRight;
+                if (nextRight.equals(nextLeft)) nextLeft = left.hasNext() ? left.next() : null;
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+            return next;
+        }
+    }
+
+
+    // --------------------- INDEXING -------------------------
+
+    // callers hold the write lock
+    private void put(SearchDocument doc) {
+        remove(doc.getItemId());
+
+        Map<String, Float> terms = new HashMap<>();
+        addPrefixTerms(doc.getItemName(), NAME_WEIGHT, terms);
+        addPrefixTerms(doc.getSku(), SKU_WEIGHT, terms);
+        addPrefixTerms(doc.getLocation(), LOCATION_WEIGHT, terms);
+        for (String word : tokenize(doc.getDescription())) {
+            terms.merge(truncate(word), DESCRIPTION_WEIGHT, Math::max);
+        }
+
+        String infixText = normalize(doc.getItemName()) + " " + normalize(doc.getSku());
+        Set<String> trigrams = trigrams(infixText);
+
+        terms.forEach((term, weight) ->
+                termPostings.computeIfAbsent(term, t -> new Posting()).put(doc.getItemId(), weight));
+        trigrams.forEach(trigram ->
+                trigramPostings.computeIfAbsent(trigram, t -> new TreeSet<>()).add(doc.getItemId()));
+
+        documents.put(doc.getItemId(), new IndexedTerms(terms.keySet().toArray(new String[0]),
+                trigrams.toArray(new String[0]), infixText));
+    }
+
+    private void remove(Integer itemId) {
+        IndexedTerms indexed = documents.remove(itemId);
+        if (indexed == null) return;
+
+        for (String term : indexed.terms) {
+            Posting posting = termPostings.get(term);
+            posting.remove(itemId);
+            if (posting.size() == 0) termPostings.remove(term);
+        }
+        for (String trigram : indexed.trigrams) {
+            Set<Integer> posting = trigramPostings.get(trigram);
+            posting.remove(itemId);
+            if (posting.isEmpty()) trigramPostings.remove(trigram);
+        }
+    }
+
+    private void addPrefixTerms(String text, float weight, Map<String, Float> terms) {
+        for (String word : tokenize(text)) {
+            int max = Math.min(word.length(), MAX_PREFIX_LENGTH);
+            for (int length = 1; length <= max; length++) {
+                float termWeight = length == word.length() ? weight : weight * PARTIAL_WORD_FACTOR;
+                terms.merge(word.substring(0, length), termWeight, Math::max);
+            }
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+
+    // --------------------- TOKENS -------------------------
+
+    private static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : normalize(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) words.add(word);
+        }
+        return words;
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static String truncate(String word) {
+        return word.length() > MAX_PREFIX_LENGTH ? word.substring(0, MAX_PREFIX_LENGTH) : word;
+    }
+
+    // itemIds of one term grouped by weight, best weight first, each in id order
+    private static final class Posting {
+        private final NavigableMap<Float, NavigableSet<Integer>> tiers = new TreeMap<>(Comparator.reverseOrder());
+        private int size;
+
+        void put(Integer itemId, float weight) {
+            if (tiers.computeIfAbsent(weight, w -> new TreeSet<>()).add(itemId)) size++;
+        }
+
+        void remove(Integer itemId) {
+            Iterator<NavigableSet<Integer>> it = tiers.values().iterator();
+            while (it.hasNext()) {
+                NavigableSet<Integer> tier = it.next();
+                if (tier.remove(itemId)) {
+                    size--;
+                    if (tier.isEmpty()) it.remove();
+                    return;
+                }
+            }
+        }
+
+        // 0 when the item isn't in this posting
+        float weight(Integer itemId) {
+            for (Map.Entry<Float, NavigableSet<Integer>> tier : tiers.entrySet()) {
+                if (tier.getValue().contains(itemId)) return tier.getKey();
+            }
+            return 0;
+        }
+
+        float bestWeight() {
+            return tiers.isEmpty() ? 0 : tiers.firstKey();
+        }
+
+        int size() {
+            return size;
+        }
+    }
+
+    private static final class IndexedTerms {
+        private final String[] terms;
+        private final String[] trigrams;
+        private final String infixText;
+
+        private IndexedTerms(String[] terms, String[] trigrams, String infixText) {
+            this.terms = terms;
+            this.trigrams = trigrams;
+            this.infixText = infixText;
+        }
+    }
+}
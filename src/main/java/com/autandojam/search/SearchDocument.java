@@ -0,0 +1,20 @@
+package com.autandojam.search;
+
+import com.autandojam.dto.ItemDTO;
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchDocument {
+    private Integer itemId;
+    private String itemName;
+    private String sku;
+    private String description;
+    private String location;
+
+    public static SearchDocument from(ItemDTO item) {
+        return new SearchDocument(item.getItemId(), item.getItemName(), item.getSku(),
+                item.getDescription(), item.getLocation());
+    }
+}
@@ -0,0 +1,9 @@
+package com.autandojam.search;
+
+import lombok.*;
+
+@Value
+public class SearchHit {
+    Integer itemId;
+    float score;
+}
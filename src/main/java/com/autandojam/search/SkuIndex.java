@@ -0,0 +1,117 @@
+package com.autandojam.search;
+
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.event.InventoryItemEvent;
+import com.autandojam.repository.InventoryItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// SKU -> current ItemDTO for barcode scans. Built in the background after
+// startup and kept current from committed item events (stock changes
+// included, so quantities are live); once ready, lookups are a map read and
+// never query the database. Writers serialize on the index monitor; readers
+// take no lock.
+@Component
+public class SkuIndex extends BackgroundIndex<ItemDTO> {
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    private final Map<String, ItemDTO> itemsBySku = new ConcurrentHashMap<>();
+    // itemId -> indexed SKU, so a renamed or deleted item's old key is dropped
+    private final Map<Integer, String> skuByItemId = new ConcurrentHashMap<>();
+    // itemId -> sequence of the event last applied; guarded by the index monitor
+    private final Map<Integer, Long> appliedSequences = new HashMap<>();
+
+    public SkuIndex() {
+        super("sku");
+    }
+
+
+    // --------------------- LIFECYCLE -------------------------
+
+    @Override
+    protected List<ItemDTO> loadAfter(int afterId, int batchSize) {
+        return itemRepository.findItemDTOsAfterId(afterId, PageRequest.of(0, batchSize)).getContent();
+    }
+
+    @Override
+    protected Integer idOf(ItemDTO item) {
+        return item.getItemId();
+    }
+
+    @Override
+    protected void index(ItemDTO item) {
+        put(item);
+    }
+
+    @Override
+    protected synchronized void exclusively(Runnable action) {
+        action.run();
+    }
+
+    // after-commit listeners of two changes to the same row can run in either
+    // order; an event older than the one already applied for the item is dropped
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onItemChanged(InventoryItemEvent event) {
+        Integer itemId = event.getItemId();
+        markTouched(itemId);
+
+        Long applied = appliedSequences.get(itemId);
+        if (applied != null && applied > event.getSequence()) return;
+        // kept after a delete too, so a late stock event can't bring the item back
+        appliedSequences.put(itemId, event.getSequence());
+
+        if (event.getType() == InventoryItemEvent.Type.DELETED) {
+            remove(itemId);
+        } else {
+            put(event.getItem());
+        }
+    }
+
+
+    // --------------------- QUERY -------------------------
+
+    // null when no item has this SKU
+    public ItemDTO get(String sku) {
+        String key = normalize(sku);
+        return key == null ? null : itemsBySku.get(key);
+    }
+
+    public int size() {
+        return itemsBySku.size();
+    }
+
+
+    // --------------------- INDEXING -------------------------
+
+    private void put(ItemDTO item) {
+        remove(item.getItemId());
+        String key = normalize(item.getSku());
+        if (key == null) return;
+
+        itemsBySku.put(key, item);
+        skuByItemId.put(item.getItemId(), key);
+    }
+
+    private void remove(Integer itemId) {
+        String key = skuByItemId.remove(itemId);
+        if (key != null) {
+            itemsBySku.computeIfPresent(key, (k, item) -> item.getItemId().equals(itemId) ? null : item);
+        }
+    }
+
+    // the sku column compares case-insensitively in MySQL, and scanners may
+    // pad or lower-case what they read
+    public static String normalize(String sku) {
+        if (sku == null || sku.isBlank()) return null;
+        return sku.trim().toUpperCase(Locale.ROOT);
+    }
+}
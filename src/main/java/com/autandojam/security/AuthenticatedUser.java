@@ -0,0 +1,18 @@
+package com.autandojam.security;
+
+import lombok.*;
+
+import java.security.Principal;
+
+// Principal built from JWT claims; getName() keeps Authentication.getName() returning the username
+@Value
+public class AuthenticatedUser implements Principal {
+    Integer userId;
+    String username;
+    String role;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
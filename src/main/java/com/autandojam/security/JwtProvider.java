@@ -1,18 +1,109 @@
 package com.autandojam.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtProvider {
+    private static final Logger log = LoggerFactory.getLogger(JwtProvider.class);
+
+    // HS512 needs a key at least as long as its 512-bit output
+    private static final int HS512_KEY_BYTES = 64;
+
     @Value("${jwt.secret:your-secret-key-change-in-production-min-32-chars}")
     private String jwtSecret;
 
     @Value("${jwt.expiration:86400000}") // 24 hours
     private long jwtExpiration;
 
+    @Value("${jwt.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${jwt.cache.ttl:5m}")
+    private Duration cacheTtl;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // SHA-256 of recently verified tokens -> their claims, so a session's
+    // repeated requests skip the base64/JSON/HMAC work. Entries never outlive
+    // the token's own exp claim.
+    private Cache<String, Claims> verifiedTokens;
+
+    // Tokens are always HS512. A base64 secret of at least 64 bytes is used as
+    // its decoded bytes, exactly as before, so existing tokens stay valid. Any
+    // other secret (like the default above, which isn't valid base64) used to
+    // fail on the first login; it is now stretched to a 512-bit key with
+    // SHA-512 and a warning is logged, since it is only as strong as the secret.
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        try {
+            keyBytes = Decoders.BASE64.decode(jwtSecret);
+        } catch (DecodingException e) {
+            keyBytes = null;
+        }
+        if (keyBytes == null || keyBytes.length < HS512_KEY_BYTES) {
+            log.warn("jwt.secret is not a base64 key of at least {} bytes; deriving the HS512 key from it with " +
+                    "SHA-512. Set a random 64-byte base64 secret in production.", HS512_KEY_BYTES);
+            keyBytes = sha512(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        }
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        long ttlMillis = cacheTtl.toMillis();
+                        if (claims.getExpiration() != null) {
+                            ttlMillis = Math.min(ttlMillis, claims.getExpiration().getTime() - System.currentTimeMillis());
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(ttlMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-claims");
+    }
+
     public String generateToken(Integer userId, String username, String role) {
         return Jwts.builder()
                 .subject(username)
@@ -20,37 +111,52 @@ public class JwtProvider {
                 .claim("role", role)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
+                .signWith(signingKey, Jwts.SIG.HS512)
                 .compact();
     }
 
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .setSigningKey(jwtSecret)
-                    .build()
-                    .parseSignedClaims(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
 
+    // verifies the signature and expiry; throws JwtException when either fails.
+    // Failed tokens are not cached.
+    public Claims parseClaims(String token) {
+        return verifiedTokens.get(digest(token), key -> verify(token));
+    }
+
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
 
     public Integer getUserIdFromToken(String token) {
-        return (Integer) Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .get("userId");
+        return parseClaims(token).get("userId", Integer.class);
+    }
+
+    // full verification, bypassing the cache
+    Claims verify(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
+    }
+
+    private static byte[] sha512(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-512").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-512 not available", e);
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,68 @@
+package com.autandojam.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+// Per-username failed-login counter. After max-failures bad attempts the
+// username is locked out, doubling the lockout for each further failure up
+// to failure-window; a locked username is refused before any hashing.
+// Counters are forgotten failure-window after the last failure.
+@Component
+public class LoginAttemptThrottle {
+    @Value("${auth.login.max-failures:5}")
+    private int maxFailures;
+
+    @Value("${auth.login.lockout:30s}")
+    private Duration lockout;
+
+    @Value("${auth.login.failure-window:15m}")
+    private Duration failureWindow;
+
+    private Cache<String, Attempts> attempts;
+
+    @PostConstruct
+    public void init() {
+        attempts = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(failureWindow)
+                .build();
+    }
+
+    // time left on the lockout, or Duration.ZERO when the username may try again
+    public Duration lockedFor(String username) {
+        Attempts current = attempts.getIfPresent(key(username));
+        if (current == null) return Duration.ZERO;
+        long remaining = current.lockedUntil - System.currentTimeMillis();
+        return remaining > 0 ? Duration.ofMillis(remaining) : Duration.ZERO;
+    }
+
+    public void recordFailure(String username) {
+        attempts.asMap().compute(key(username), (key, current) -> {
+            int failures = current == null ? 1 : current.failures + 1;
+            long lockedUntil = current == null ? 0 : current.lockedUntil;
+            if (failures >= maxFailures) {
+                int doublings = Math.min(failures - maxFailures, 20);
+                long lockMillis = Math.min(lockout.toMillis() << doublings, failureWindow.toMillis());
+                lockedUntil = System.currentTimeMillis() + lockMillis;
+            }
+            return new Attempts(failures, lockedUntil);
+        });
+    }
+
+    public void recordSuccess(String username) {
+        attempts.invalidate(key(username));
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.toLowerCase(Locale.ROOT);
+    }
+
+    private record Attempts(int failures, long lockedUntil) {
+    }
+}
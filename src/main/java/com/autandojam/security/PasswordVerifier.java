@@ -0,0 +1,138 @@
+package com.autandojam.security;
+
+import com.autandojam.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs BCrypt checks on a small dedicated pool so a login burst can't tie up
+// Tomcat's request threads. The pool's queue is bounded and overflow is
+// rejected immediately (RejectedExecutionException) rather than queued.
+//
+// Successful checks are remembered for a short while as an HMAC of the
+// password under a per-process random key, together with the stored hash it
+// matched; a repeat login with the same password skips BCrypt, and a password
+// change invalidates the entry because the stored hash differs.
+//
+// Unknown usernames are checked against a dummy hash on the same pool, so
+// they take as long as a wrong password and the response time doesn't tell
+// which usernames exist.
+@Component
+public class PasswordVerifier {
+    @Value("${auth.login.hash-threads:4}")
+    private int hashThreads;
+
+    @Value("${auth.login.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${auth.login.credential-cache-ttl:10m}")
+    private Duration credentialCacheTtl;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final byte[] macKey = new byte[32];
+
+    // a hash of a random password, encoded like a real one so it costs the same
+    private String dummyHash;
+
+    private ThreadPoolExecutor hashPool;
+    private Cache<String, VerifiedCredential> verifiedCredentials;
+    private Timer hashTimer;
+
+    @PostConstruct
+    public void init() {
+        new SecureRandom().nextBytes(macKey);
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+
+        AtomicInteger threads = new AtomicInteger();
+        hashPool = new ThreadPoolExecutor(hashThreads, hashThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        verifiedCredentials = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(credentialCacheTtl)
+                .build();
+
+        hashTimer = meterRegistry.timer("auth.password.hash");
+        meterRegistry.gauge("auth.password.queue.size", hashPool, pool -> pool.getQueue().size());
+        meterRegistry.gauge("auth.password.active", hashPool, ThreadPoolExecutor::getActiveCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    // throws RejectedExecutionException when the hash pool and its queue are full
+    public CompletableFuture<Boolean> matches(User user, String rawPassword) {
+        if (rawPassword == null) return CompletableFuture.completedFuture(false);
+
+        byte[] passwordMac = mac(rawPassword);
+        VerifiedCredential known = verifiedCredentials.getIfPresent(user.getUsername());
+        if (known != null && known.storedHash().equals(user.getPassword())
+                && MessageDigest.isEqual(known.passwordMac(), passwordMac)) {
+            meterRegistry.counter("auth.password.cached").increment();
+            return CompletableFuture.completedFuture(true);
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            boolean valid = hashTimer.record(() -> passwordEncoder.matches(rawPassword, user.getPassword()));
+            if (valid) {
+                verifiedCredentials.put(user.getUsername(), new VerifiedCredential(user.getPassword(), passwordMac));
+            }
+            return valid;
+        }, hashPool);
+    }
+
+    // always false, after the same BCrypt work as matches(); throws
+    // RejectedExecutionException like matches() when the pool is full
+    public CompletableFuture<Boolean> matchesUnknownUser(String rawPassword) {
+        if (rawPassword == null) return CompletableFuture.completedFuture(false);
+
+        return CompletableFuture.supplyAsync(() -> {
+            hashTimer.record(() -> passwordEncoder.matches(rawPassword, dummyHash));
+            return false;
+        }, hashPool);
+    }
+
+    private byte[] mac(String rawPassword) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(macKey, "HmacSHA256"));
+            return mac.doFinal(rawPassword.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private record VerifiedCredential(String storedHash, byte[] passwordMac) {
+    }
+}
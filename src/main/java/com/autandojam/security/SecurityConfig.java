@@ -1,29 +1,94 @@
 package com.autandojam.security;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
+    private static final String SCRAPER_ROLE = "METRICS_SCRAPER";
+
+    @Autowired
+    private JwtProvider jwtProvider;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
 
+    // Prometheus scrapes with HTTP Basic as a dedicated user: the gauges carry
+    // stock value and low-stock counts, so the endpoint is not public. With no
+    // scraper password configured it refuses every request.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain metricsScrapeFilterChain(HttpSecurity http,
+            @Value("${inventory.metrics.scraper.username:prometheus}") String username,
+            @Value("${inventory.metrics.scraper.password:}") String password) throws Exception {
+        http
+            .securityMatcher("/actuator/prometheus")
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .httpBasic(Customizer.withDefaults())
+            .authenticationManager(scraperAuthentication(username, password))
+            .authorizeHttpRequests(auth -> {
+                if (password.isBlank()) {
+                    auth.anyRequest().denyAll();
+                } else {
+                    auth.anyRequest().hasRole(SCRAPER_ROLE);
+                }
+            });
+        return http.build();
+    }
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
+            .cors(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/", "/index.html", "/static/**", "/css/**", "/js/**").permitAll()
-                .requestMatchers("/api/**").authenticated()
+                .requestMatchers("/", "/index.html", "/script.js", "/styles.css",
+                        "/static/**", "/css/**", "/js/**").permitAll()
+                .requestMatchers("/auth/**", "/error", "/actuator/health").permitAll()
+                .anyRequest().authenticated()
             )
-            .httpBasic();
+            .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new JwtAuthenticationFilter(jwtProvider), UsernamePasswordAuthenticationFilter.class);
         return http.build();
     }
+
+    private AuthenticationManager scraperAuthentication(String username, String password) {
+        if (password.isBlank()) {
+            return authentication -> {
+                throw new BadCredentialsException("No metrics scraper password configured");
+            };
+        }
+        UserDetails scraper = User.withUsername(username)
+                .password(passwordEncoder().encode(password))
+                .roles(SCRAPER_ROLE)
+                .build();
+
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(scraper));
+        provider.setPasswordEncoder(passwordEncoder());
+        return new ProviderManager(provider);
+    }
 }
@@ -1,22 +1,55 @@
 package com.autandojam.service;
 
+import com.autandojam.audit.ActivityLogWriter;
+import com.autandojam.cache.ItemCache;
+import com.autandojam.dto.BulkStockResult;
+import com.autandojam.dto.CursorPage;
+import com.autandojam.dto.ItemCursor;
 import com.autandojam.dto.ItemDTO;
+import com.autandojam.dto.StockMovementLine;
+import com.autandojam.dto.StockTransactionDTO;
+import com.autandojam.dto.StockUpdateResult;
 import com.autandojam.entity.*;
+import com.autandojam.event.InventoryItemEvent;
+import com.autandojam.repository.ArchivedStockTransactionRepository;
 import com.autandojam.repository.InventoryItemRepository;
+import com.autandojam.repository.LedgerHistoryRepository;
+import com.autandojam.repository.StockBatchRepository;
 import com.autandojam.repository.StockTransactionRepository;
-import com.autandojam.repository.ActivityLogRepository;
+import com.autandojam.search.ItemSearchIndex;
+import com.autandojam.search.SearchHit;
+import com.autandojam.search.SkuIndex;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "inventory.service", histogram = true)
 public class InventoryService {
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
 
     @Autowired
     private InventoryItemRepository itemRepository;
@@ -25,27 +58,160 @@ public class InventoryService {
     private StockTransactionRepository transactionRepository;
 
     @Autowired
-    private ActivityLogRepository activityLogRepository;
+    private ActivityLogWriter activityLogWriter;
+
+    @Autowired
+    private StockBatchRepository stockBatchRepository;
+
+    @Autowired
+    private ItemSearchIndex searchIndex;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private InventorySummaryService summaryService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private ArchivedStockTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private LedgerHistoryRepository ledgerHistoryRepository;
+
+    @Autowired
+    private SkuIndex skuIndex;
 
 
     // --------------------- FETCHING -------------------------
 
+    @Transactional(readOnly = true)
     public Page<ItemDTO> getAllItems(Pageable pageable) {
-        return itemRepository.findAll(pageable).map(this::convertToDTO);
+        return itemRepository.findAllItemDTOs(pageable);
     }
 
+    @Transactional(readOnly = true)
     public Page<ItemDTO> searchItems(String query, Pageable pageable) {
-        return itemRepository.searchByName(query, pageable).map(this::convertToDTO);
+        if (query == null || query.isBlank()) {
+            return getAllItems(pageable);
+        }
+        // the index builds in the background after startup; until then fall
+        // back to the LIKE query
+        if (!searchIndex.isReady()) {
+            return itemRepository.searchItemDTOsByName(query, pageable);
+        }
+
+        Page<Integer> ranked = searchIndex.search(query, pageable);
+        Map<Integer, ItemDTO> items = itemRepository.findItemDTOsByIds(ranked.getContent())
+                .stream()
+                .collect(Collectors.toMap(ItemDTO::getItemId, Function.identity()));
+
+        List<ItemDTO> content = ranked.getContent().stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ranked.getTotalElements());
     }
 
+    @Transactional(readOnly = true)
+    public Page<StockTransactionDTO> getItemTransactions(Integer itemId, Pageable pageable) {
+        return ledgerHistoryRepository.findTransactionsByItem(itemId, pageable);
+    }
+
+    @Transactional(readOnly = true)
     public Page<ItemDTO> getItemsByCategory(Integer categoryId, Pageable pageable) {
-        return itemRepository.findByCategory_CategoryId(categoryId, pageable).map(this::convertToDTO);
+        return itemRepository.findItemDTOsByCategory(categoryId, pageable);
     }
 
     public ItemDTO getItemById(Integer itemId) {
-        return itemRepository.findById(itemId)
-                .map(this::convertToDTO)
-                .orElse(null);
+        return itemCache.get(itemId, id -> itemRepository.findItemDTOById(id).orElse(null));
+    }
+
+
+    // scanner path: served from SkuIndex without a query once it has built
+    public ItemDTO getItemBySku(String sku) {
+        if (skuIndex.isReady()) {
+            return skuIndex.get(sku);
+        }
+        return itemRepository.findItemDTOBySku(sku.trim()).orElse(null);
+    }
+
+    // --------------------- KEYSET SCROLLING -------------------------
+
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDTO> scrollItems(Integer categoryId, boolean sortByName, String after, int size) {
+        ItemCursor cursor = after == null ? null : ItemCursor.decode(after);
+        int afterId = cursor == null ? 0 : cursor.getItemId();
+        Pageable limit = PageRequest.of(0, size);
+
+        Slice<ItemDTO> slice;
+        if (sortByName) {
+            String afterName = cursor == null ? "" : cursor.getSortKey();
+            if (afterName == null) throw new IllegalArgumentException("Invalid cursor");
+
+            slice = categoryId == null
+                    ? itemRepository.findItemDTOsAfterName(afterName, afterId, limit)
+                    : itemRepository.findItemDTOsInCategoryAfterName(categoryId, afterName, afterId, limit);
+        } else {
+            slice = categoryId == null
+                    ? itemRepository.findItemDTOsAfterId(afterId, limit)
+                    : itemRepository.findItemDTOsInCategoryAfterId(categoryId, afterId, limit);
+        }
+
+        return toCursorPage(slice, item -> new ItemCursor(sortByName ? item.getItemName() : null, item.getItemId()));
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDTO> scrollSearch(String query, String after, int size) {
+        if (query == null || query.isBlank()) {
+            return scrollItems(null, false, after, size);
+        }
+
+        ItemCursor cursor = after == null ? null : ItemCursor.decode(after);
+        if (!searchIndex.isReady()) {
+            int afterId = cursor == null ? 0 : cursor.getItemId();
+            Slice<ItemDTO> slice = itemRepository.searchItemDTOsByNameAfterId(query, afterId, PageRequest.of(0, size));
+            return toCursorPage(slice, item -> new ItemCursor(null, item.getItemId()));
+        }
+
+        Float afterScore = null;
+        if (cursor != null) {
+            try {
+                afterScore = Float.valueOf(cursor.getSortKey());
+            } catch (NullPointerException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        List<SearchHit> hits = searchIndex.searchAfter(query, afterScore,
+                cursor == null ? null : cursor.getItemId(), size + 1);
+        boolean hasNext = hits.size() > size;
+        if (hasNext) hits = hits.subList(0, size);
+
+        Map<Integer, ItemDTO> items = itemRepository.findItemDTOsByIds(
+                        hits.stream().map(SearchHit::getItemId).collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(ItemDTO::getItemId, Function.identity()));
+
+        List<ItemDTO> content = hits.stream()
+                .map(hit -> items.get(hit.getItemId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        SearchHit last = hits.isEmpty() ? null : hits.get(hits.size() - 1);
+        String next = hasNext ? new ItemCursor(Float.toString(last.getScore()), last.getItemId()).encode() : null;
+        return new CursorPage<>(content, next, hasNext);
+    }
+
+    private CursorPage<ItemDTO> toCursorPage(Slice<ItemDTO> slice, Function<ItemDTO, ItemCursor> cursorOf) {
+        List<ItemDTO> content = slice.getContent();
+        String next = slice.hasNext() ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        return new CursorPage<>(content, next, slice.hasNext());
     }
 
 
@@ -55,12 +221,17 @@ public class InventoryService {
     public ItemDTO createItem(InventoryItem item, User user) {
         item.setAddedBy(user);
         item.calculateTotalValue();
+        item.calculateShortfall();
 
         InventoryItem saved = itemRepository.save(item);
         logActivity(user, "ITEM_CREATED", "InventoryItem", saved.getItemId(),
                 "Created item: " + saved.getItemName());
 
-        return convertToDTO(saved);
+        stockLedgerService.recordOpeningSnapshot(saved);
+        ItemDTO created = convertToDTO(saved);
+        summaryService.itemCreated(created);
+        eventPublisher.publishEvent(InventoryItemEvent.created(created));
+        return created;
     }
 
 
@@ -68,7 +239,11 @@ public class InventoryService {
 
     @Transactional
     public ItemDTO updateItem(Integer itemId, InventoryItem updatedItem, User user) {
-        return itemRepository.findById(itemId).map(item -> {
+        // quantity and its derived columns are written back unchanged, which is
+        // only safe while no stock movement can commit in between
+        return itemRepository.lockById(itemId).map(item -> {
+            Integer previousShortfall = item.getShortfall();
+            ItemDTO before = convertToDTO(item);
 
             item.setItemName(updatedItem.getItemName());
             item.setCategory(updatedItem.getCategory());
@@ -79,13 +254,17 @@ public class InventoryService {
             item.setReorderLevel(updatedItem.getReorderLevel());
 
             item.calculateTotalValue();
+            item.calculateShortfall();
 
             InventoryItem saved = itemRepository.save(item);
 
             logActivity(user, "ITEM_UPDATED", "InventoryItem", itemId,
                     "Updated item: " + saved.getItemName());
 
-            return convertToDTO(saved);
+            ItemDTO updated = convertToDTO(saved);
+            summaryService.itemUpdated(before, updated);
+            eventPublisher.publishEvent(InventoryItemEvent.updated(updated, previousShortfall));
+            return updated;
 
         }).orElse(null);
     }
@@ -95,10 +274,14 @@ public class InventoryService {
 
     @Transactional
     public boolean deleteItem(Integer itemId, User user) {
-        if (!itemRepository.existsById(itemId)) return false;
+        ItemDTO existing = itemRepository.findItemDTOById(itemId).orElse(null);
+        if (existing == null) return false;
 
         itemRepository.deleteById(itemId);
+        archivedTransactionRepository.deleteByItemId(itemId);
         logActivity(user, "ITEM_DELETED", "InventoryItem", itemId, "Deleted item");
+        summaryService.itemDeleted(existing);
+        eventPublisher.publishEvent(InventoryItemEvent.deleted(existing));
 
         return true;
     }
@@ -107,66 +290,168 @@ public class InventoryService {
     // --------------------- STOCK OPERATIONS -------------------------
 
     @Transactional
-    public void addStock(Integer itemId, Integer quantity, String reference, User user) {
-        itemRepository.findById(itemId).ifPresent(item -> {
+    public StockUpdateResult addStock(Integer itemId, Integer quantity, String reference, User user) {
+        requirePositive(quantity);
 
-            item.setQuantity(item.getQuantity() + quantity);
-            item.calculateTotalValue();
-            itemRepository.save(item);
+        if (itemRepository.incrementQuantity(itemId, quantity, LocalDateTime.now()) == 0) {
+            return StockUpdateResult.NOT_FOUND;
+        }
 
-            StockTransaction transaction = StockTransaction.builder()
-                    .item(item)
-                    .transactionType(TransactionType.IN)
-                    .quantityChange(quantity)
-                    .referenceNumber(reference)
-                    .performedBy(user)
-                    .build();
+        recordTransaction(itemId, TransactionType.IN, quantity, reference, user);
+        logActivity(user, "STOCK_ADDED", "InventoryItem", itemId,
+                "Added " + quantity + " units");
+        publishStockChanged(itemId, quantity);
 
-            transactionRepository.save(transaction);
-            logActivity(user, "STOCK_ADDED", "InventoryItem", itemId,
-                    "Added " + quantity + " units");
-        });
+        return StockUpdateResult.APPLIED;
     }
 
 
     @Transactional
-    public void reduceStock(Integer itemId, Integer quantity, String reference, User user) {
-        itemRepository.findById(itemId).ifPresent(item -> {
+    public StockUpdateResult reduceStock(Integer itemId, Integer quantity, String reference, User user) {
+        requirePositive(quantity);
+
+        // the availability check and the decrement are one statement, so two
+        // concurrent checkouts can never both spend the same units
+        if (itemRepository.decrementQuantityIfAvailable(itemId, quantity, LocalDateTime.now()) == 0) {
+            return itemRepository.existsById(itemId)
+                    ? StockUpdateResult.INSUFFICIENT_STOCK
+                    : StockUpdateResult.NOT_FOUND;
+        }
+
+        recordTransaction(itemId, TransactionType.OUT, quantity, reference, user);
+        logActivity(user, "STOCK_REDUCED", "InventoryItem", itemId,
+                "Reduced " + quantity + " units");
+        publishStockChanged(itemId, -quantity);
+
+        return StockUpdateResult.APPLIED;
+    }
 
-            if (item.getQuantity() < quantity) return; // safe guard
 
-            item.setQuantity(item.getQuantity() - quantity);
-            item.calculateTotalValue();
-            itemRepository.save(item);
+    // --------------------- BULK STOCK -------------------------
 
-            StockTransaction transaction = StockTransaction.builder()
-                    .item(item)
-                    .transactionType(TransactionType.OUT)
-                    .quantityChange(quantity)
-                    .referenceNumber(reference)
+    @Transactional
+    public BulkStockResult applyBulkStock(TransactionType type, List<StockMovementLine> lines, User user) {
+        if (type != TransactionType.IN && type != TransactionType.OUT) {
+            throw new IllegalArgumentException("Bulk stock movements must be IN or OUT");
+        }
+        for (StockMovementLine line : lines) {
+            if (line.getItemId() == null) throw new IllegalArgumentException("Every stock line needs an itemId");
+            requirePositive(line.getQuantity());
+        }
+
+        // locks the items in id order and tells missing items apart from lines rejected for stock
+        Map<Integer, Integer> quantities = stockBatchRepository.lockQuantities(lines.stream()
+                .map(StockMovementLine::getItemId)
+                .collect(Collectors.toSet()));
+
+        BulkStockResult result = new BulkStockResult();
+        SortedMap<Integer, Integer> netChanges = new TreeMap<>();
+        List<StockTransaction> transactions = new ArrayList<>();
+        List<ActivityLog> logs = new ArrayList<>();
+        String action = type == TransactionType.IN ? "STOCK_ADDED" : "STOCK_REDUCED";
+        String verb = type == TransactionType.IN ? "Added " : "Reduced ";
+
+        // lines are checked in request order against the locked quantities, so
+        // several lines for one item are accepted or rejected one by one
+        for (StockMovementLine line : lines) {
+            Integer available = quantities.get(line.getItemId());
+            if (available == null) {
+                result.getMissingItemIds().add(line.getItemId());
+                continue;
+            }
+            int change = type == TransactionType.IN ? line.getQuantity() : -line.getQuantity();
+            if (available + change < 0) {
+                result.getInsufficientStockItemIds().add(line.getItemId());
+                continue;
+            }
+            quantities.put(line.getItemId(), available + change);
+
+            transactions.add(StockTransaction.builder()
+                    .item(itemRepository.getReferenceById(line.getItemId()))
+                    .transactionType(type)
+                    .quantityChange(line.getQuantity())
+                    .referenceNumber(line.getReference())
                     .performedBy(user)
-                    .build();
+                    .build());
+
+            logs.add(ActivityLog.builder()
+                    .user(user)
+                    .action(action)
+                    .entityType("InventoryItem")
+                    .entityId(line.getItemId())
+                    .description(verb + line.getQuantity() + " units")
+                    .createdAt(LocalDateTime.now())
+                    .build());
+
+            netChanges.merge(line.getItemId(), change, Integer::sum);
+            result.setAppliedLines(result.getAppliedLines() + 1);
+        }
+
+        // one guarded UPDATE per item, in one JDBC batch
+        stockBatchRepository.applyQuantityChanges(netChanges, quantities);
+        stockBatchRepository.insertTransactions(transactions);
+        activityLogWriter.submitAll(logs);
+
+        if (!netChanges.isEmpty()) {
+            List<ItemDTO> changed = itemRepository.findItemDTOsByIds(netChanges.keySet());
+            summaryService.stockChanged(changed, netChanges);
+            for (ItemDTO item : changed) {
+                eventPublisher.publishEvent(InventoryItemEvent.stockChanged(item,
+                        item.getShortfall() + netChanges.get(item.getItemId())));
+            }
+        }
+
+        return result;
+    }
+
+    private void recordTransaction(Integer itemId, TransactionType type, Integer quantity,
+                                   String reference, User user) {
+        StockTransaction transaction = StockTransaction.builder()
+                .item(itemRepository.getReferenceById(itemId))
+                .transactionType(type)
+                .quantityChange(quantity)
+                .referenceNumber(reference)
+                .performedBy(user)
+                .build();
 
-            transactionRepository.save(transaction);
-            logActivity(user, "STOCK_REDUCED", "InventoryItem", itemId,
-                    "Reduced " + quantity + " units");
+        transactionRepository.save(transaction);
+    }
+
+    // reads back the row this transaction just changed so listeners get the
+    // new level; the shortfall before the change follows from the delta
+    private void publishStockChanged(Integer itemId, int change) {
+        itemRepository.findItemDTOById(itemId).ifPresent(item -> {
+            summaryService.stockChanged(List.of(item), Map.of(itemId, change));
+            eventPublisher.publishEvent(InventoryItemEvent.stockChanged(item, item.getShortfall() + change));
         });
     }
 
+    private void requirePositive(Integer quantity) {
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be a positive number");
+        }
+    }
+
 
     // --------------------- LOW STOCK -------------------------
 
-    public List<ItemDTO> getLowStockItems() {
-        return itemRepository.findLowStockItems()
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public Page<ItemDTO> getLowStockItems(Pageable pageable) {
+        return itemRepository.findLowStockItemDTOs(pageable);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillShortfall() {
+        int updated = itemRepository.backfillShortfall();
+        if (updated > 0) log.info("Backfilled low-stock shortfall for {} items", updated);
     }
 
 
     // --------------------- DTO MAPPER -------------------------
 
-    private ItemDTO convertToDTO(InventoryItem item) {
+    // package-private for the JMH harness in src/jmh/java
+    ItemDTO convertToDTO(InventoryItem item) {
         return ItemDTO.builder()
                 .itemId(item.getItemId())
                 .itemName(item.getItemName())
@@ -179,6 +464,7 @@ public class InventoryService {
                 .location(item.getLocation())
                 .sku(item.getSku())
                 .reorderLevel(item.getReorderLevel())
+                .shortfall(item.getShortfall())
                 .addedBy(item.getAddedBy().getFullName())
                 .createdAt(item.getCreatedAt())
                 .updatedAt(item.getUpdatedAt())
@@ -188,15 +474,17 @@ public class InventoryService {
 
     // --------------------- LOGGING -------------------------
 
+    // written after commit by the async audit pipeline, off the request's transaction
     private void logActivity(User user, String action, String entityType, Integer entityId, String description) {
-        ActivityLog log = ActivityLog.builder()
+        ActivityLog activityLog = ActivityLog.builder()
                 .user(user)
                 .action(action)
                 .entityType(entityType)
                 .entityId(entityId)
                 .description(description)
+                .createdAt(LocalDateTime.now())
                 .build();
 
-        activityLogRepository.save(log);
+        activityLogWriter.submit(activityLog);
     }
 }
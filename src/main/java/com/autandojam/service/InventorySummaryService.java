@@ -0,0 +1,322 @@
+package com.autandojam.service;
+
+import com.autandojam.dto.InventorySummaryDTO;
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.entity.Category;
+import com.autandojam.entity.InventorySummary;
+import com.autandojam.entity.SummaryDimension;
+import com.autandojam.repository.CategoryRepository;
+import com.autandojam.repository.InventoryItemRepository;
+import com.autandojam.repository.InventorySummaryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Valuation totals per category and per location, maintained by deltas in
+// the same transaction as the item change so a report is a read of a few
+// hundred rows instead of a scan of inventory_items. Deltas are applied in
+// (dimension, key) order so concurrent writers lock summary rows in the same
+// order. A scheduled reconciliation recomputes everything and reports drift.
+@Service
+public class InventorySummaryService {
+    private static final Logger log = LoggerFactory.getLogger(InventorySummaryService.class);
+
+    @Value("${inventory.summary.repair-drift:true}")
+    private boolean repairDrift;
+
+    @Autowired
+    private InventorySummaryRepository summaryRepository;
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+
+    // --------------------- DELTAS -------------------------
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemCreated(ItemDTO item) {
+        new Deltas().addItem(item, 1).apply();
+    }
+
+    // one upsert per affected category/location for a whole import chunk
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemsCreated(Collection<ItemDTO> items) {
+        Deltas deltas = new Deltas();
+        items.forEach(item -> deltas.addItem(item, 1));
+        deltas.apply();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemUpdated(ItemDTO before, ItemDTO after) {
+        new Deltas().addItem(before, -1).addItem(after, 1).apply();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemDeleted(ItemDTO item) {
+        new Deltas().addItem(item, -1).apply();
+    }
+
+    // items carry their state after the change; quantityChanges is the signed change per item id
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void stockChanged(Collection<ItemDTO> items, Map<Integer, Integer> quantityChanges) {
+        Deltas deltas = new Deltas();
+        for (ItemDTO item : items) {
+            int change = quantityChanges.getOrDefault(item.getItemId(), 0);
+            BigDecimal value = item.getUnitPrice() == null
+                    ? BigDecimal.ZERO
+                    : item.getUnitPrice().multiply(BigDecimal.valueOf(change));
+            deltas.add(item, 0, change, value);
+        }
+        deltas.apply();
+    }
+
+
+    // --------------------- READ -------------------------
+
+    @Transactional(readOnly = true)
+    public List<InventorySummaryDTO> getSummaries(SummaryDimension dimension) {
+        Map<String, String> categoryNames = dimension == SummaryDimension.CATEGORY
+                ? categoryRepository.findAll().stream().collect(Collectors.toMap(
+                        category -> String.valueOf(category.getCategoryId()), Category::getCategoryName))
+                : Collections.emptyMap();
+
+        return summaryRepository.findByDimensionOrderByDimensionKey(dimension).stream()
+                .map(summary -> InventorySummaryDTO.builder()
+                        .dimension(summary.getDimension())
+                        .key(summary.getDimensionKey())
+                        .label(dimension == SummaryDimension.CATEGORY
+                                ? categoryNames.get(summary.getDimensionKey())
+                                : summary.getDimensionKey())
+                        .itemCount(summary.getItemCount())
+                        .totalQuantity(summary.getTotalQuantity())
+                        .totalValue(summary.getTotalValue())
+                        .updatedAt(summary.getUpdatedAt())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+
+    // --------------------- RECONCILIATION -------------------------
+
+    // fills the table the first time this runs against an existing catalogue
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        if (summaryRepository.count() == 0 && itemRepository.count() > 0) {
+            log.info("Inventory summaries are empty, building them from inventory_items");
+            reconcile(true);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.summary.reconcile-interval:PT1H}",
+            initialDelayString = "${inventory.summary.reconcile-interval:PT1H}")
+    public void scheduledReconcile() {
+        reconcile(repairDrift);
+    }
+
+    // Returns the number of drifted rows. The full recompute runs without
+    // locks (on the replica, when one is configured) and only nominates keys;
+    // each candidate is then re-checked and repaired in its own short
+    // transaction holding just that summary row, so writers that commit
+    // afterwards add their delta on top of the repaired values.
+    public int reconcile(boolean repair) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Set<Key> candidates = readOnly.execute(status -> findCandidates());
+
+        // nothing stored yet is a first build rather than drift worth a warning each
+        boolean initialBuild = !candidates.isEmpty() && summaryRepository.count() == 0;
+
+        int drifted = 0;
+        for (Key key : candidates) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> recheck(key, repair, initialBuild)))) {
+                drifted++;
+            }
+        }
+
+        meterRegistry.counter("inventory.summary.drift").increment(drifted);
+        log.info("Inventory summary reconciliation: {} drifted rows{}", drifted, repair && drifted > 0 ? " repaired" : "");
+        return drifted;
+    }
+
+    // keys whose stored totals differ from a full recompute, in key order
+    private Set<Key> findCandidates() {
+        Map<Key, InventorySummary> stored = summaryRepository.findAll().stream()
+                .collect(Collectors.toMap(s -> new Key(s.getDimension(), s.getDimensionKey()), Function.identity()));
+
+        Map<Key, Totals> expected = new HashMap<>();
+        itemRepository.aggregateByCategory().forEach(row -> expected.put(
+                new Key(SummaryDimension.CATEGORY, (String) row[0]), Totals.of(row, 1)));
+        itemRepository.aggregateByLocation().forEach(row -> expected.put(
+                new Key(SummaryDimension.LOCATION, (String) row[0]), Totals.of(row, 1)));
+
+        Set<Key> keys = new HashSet<>(expected.keySet());
+        keys.addAll(stored.keySet());
+
+        Set<Key> candidates = new TreeSet<>();
+        for (Key key : keys) {
+            if (drifts(stored.get(key), expected.getOrDefault(key, Totals.ZERO))) candidates.add(key);
+        }
+        return candidates;
+    }
+
+    // Runs in its own transaction. The row lock comes first, so the
+    // recompute sees every writer that already applied its delta to this key.
+    private boolean recheck(Key key, boolean repair, boolean initialBuild) {
+        InventorySummary summary = summaryRepository.lockOne(key.dimension(), key.key()).orElse(null);
+        boolean missing = summary == null;
+        if (missing && repair) {
+            // an empty upsert creates the row, so there is something to lock
+            summaryRepository.applyDelta(key.dimension().name(), key.key(), 0, 0, BigDecimal.ZERO, LocalDateTime.now());
+            summary = summaryRepository.lockOne(key.dimension(), key.key()).orElseThrow();
+        }
+        Totals want = aggregate(key);
+        if (!drifts(summary, want)) {
+            // a write in flight during the unlocked recompute, or nothing to repair
+            if (summary != null && summary.getItemCount() == 0 && want.isZero()) summaryRepository.delete(summary);
+            return false;
+        }
+
+        if (!initialBuild) {
+            log.warn("Inventory summary drift for {} {}: stored {}, recomputed {}", key.dimension(), key.key(),
+                    missing ? "none" : summary.getItemCount() + " items / "
+                            + summary.getTotalQuantity() + " units / " + summary.getTotalValue(), want);
+        }
+        if (!repair) return true;
+
+        if (want.isZero()) {
+            summaryRepository.delete(summary);
+        } else {
+            summary.setItemCount(want.itemCount());
+            summary.setTotalQuantity(want.quantity());
+            summary.setTotalValue(want.value());
+            summary.setUpdatedAt(LocalDateTime.now());
+            summaryRepository.save(summary);
+        }
+        return true;
+    }
+
+    private Totals aggregate(Key key) {
+        List<Object[]> rows;
+        if (key.dimension() == SummaryDimension.CATEGORY) {
+            rows = itemRepository.aggregateCategory(Integer.valueOf(key.key()));
+        } else if (key.key().isEmpty()) {
+            rows = itemRepository.aggregateWithoutLocation();
+        } else {
+            rows = itemRepository.aggregateLocation(key.key());
+        }
+        return rows.isEmpty() ? Totals.ZERO : Totals.of(rows.get(0), 0);
+    }
+
+    private static boolean drifts(InventorySummary summary, Totals want) {
+        if (summary == null) return !want.isZero();
+        return !want.matches(summary);
+    }
+
+
+    // --------------------- HELPERS -------------------------
+
+    private record Key(SummaryDimension dimension, String key) implements Comparable<Key> {
+        @Override
+        public int compareTo(Key other) {
+            int byDimension = dimension.compareTo(other.dimension);
+            return byDimension != 0 ? byDimension : key.compareTo(other.key);
+        }
+    }
+
+    private record Totals(long itemCount, long quantity, BigDecimal value) {
+        static final Totals ZERO = new Totals(0, 0, BigDecimal.ZERO);
+
+        // [item count, quantity, value] starting at row[from]
+        static Totals of(Object[] row, int from) {
+            return new Totals(((Number) row[from]).longValue(), ((Number) row[from + 1]).longValue(),
+                    new BigDecimal(row[from + 2].toString()));
+        }
+
+        boolean matches(InventorySummary summary) {
+            return summary.getItemCount() == itemCount
+                    && summary.getTotalQuantity() == quantity
+                    && summary.getTotalValue().compareTo(value) == 0;
+        }
+
+        boolean isZero() {
+            return itemCount == 0 && quantity == 0 && value.signum() == 0;
+        }
+
+        @Override
+        public String toString() {
+            return itemCount + " items / " + quantity + " units / " + value;
+        }
+    }
+
+    // accumulates per-key changes so each summary row is written once, in key order
+    private class Deltas {
+        private final Map<Key, long[]> counts = new TreeMap<>();
+        private final Map<Key, BigDecimal> values = new TreeMap<>();
+
+        Deltas addItem(ItemDTO item, int sign) {
+            int quantity = item.getQuantity() == null ? 0 : item.getQuantity();
+            BigDecimal value = item.getTotalValue() == null ? BigDecimal.ZERO : item.getTotalValue();
+            return add(item, sign, (long) sign * quantity, sign < 0 ? value.negate() : value);
+        }
+
+        Deltas add(ItemDTO item, int itemCount, long quantity, BigDecimal value) {
+            add(new Key(SummaryDimension.CATEGORY, String.valueOf(item.getCategoryId())), itemCount, quantity, value);
+            add(new Key(SummaryDimension.LOCATION, item.getLocation() == null ? "" : item.getLocation()),
+                    itemCount, quantity, value);
+            return this;
+        }
+
+        private void add(Key key, long itemCount, long quantity, BigDecimal value) {
+            long[] current = counts.computeIfAbsent(key, k -> new long[2]);
+            current[0] += itemCount;
+            current[1] += quantity;
+            values.merge(key, value, BigDecimal::add);
+        }
+
+        void apply() {
+            LocalDateTime now = LocalDateTime.now();
+            counts.forEach((key, delta) -> {
+                BigDecimal value = values.get(key);
+                if (delta[0] == 0 && delta[1] == 0 && value.signum() == 0) return;
+                String dimension = key.dimension().name();
+                if (summaryRepository.addDelta(dimension, key.key(), delta[0], delta[1], value, now) == 0) {
+                    // first item for this key; the upsert covers a concurrent first insert
+                    summaryRepository.applyDelta(dimension, key.key(), delta[0], delta[1], value, now);
+                }
+            });
+        }
+    }
+}
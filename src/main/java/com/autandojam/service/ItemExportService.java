@@ -0,0 +1,87 @@
+package com.autandojam.service;
+
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.repository.InventoryItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+// Writes the whole catalogue straight from a forward-only result stream to
+// the response, one row at a time, so memory stays flat whatever the size.
+@Service
+@Timed(value = "inventory.service", histogram = true)
+public class ItemExportService {
+    public enum Format {
+        NDJSON, CSV
+    }
+
+    private static final String[] CSV_HEADER = {
+            "itemId", "itemName", "categoryId", "categoryName", "quantity", "unitPrice", "totalValue",
+            "description", "location", "sku", "reorderLevel", "addedBy", "createdAt", "updatedAt"
+    };
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream out) throws IOException {
+        try (Stream<ItemDTO> items = itemRepository.streamAllItemDTOs()) {
+            if (format == Format.CSV) {
+                writeCsv(items.iterator(), out);
+            } else {
+                writeNdjson(items.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<ItemDTO> items, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        while (items.hasNext()) {
+            out.write(writer.writeValueAsBytes(items.next()));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private void writeCsv(Iterator<ItemDTO> items, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writeCsvRow(writer, (Object[]) CSV_HEADER);
+
+        while (items.hasNext()) {
+            ItemDTO item = items.next();
+            writeCsvRow(writer, item.getItemId(), item.getItemName(), item.getCategoryId(),
+                    item.getCategoryName(), item.getQuantity(), item.getUnitPrice(), item.getTotalValue(),
+                    item.getDescription(), item.getLocation(), item.getSku(), item.getReorderLevel(),
+                    item.getAddedBy(), item.getCreatedAt(), item.getUpdatedAt());
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            if (values[i] != null) writer.write(csvEscape(values[i].toString()));
+        }
+        writer.write("\r\n");
+    }
+
+    private String csvEscape(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
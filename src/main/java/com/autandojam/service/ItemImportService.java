@@ -0,0 +1,482 @@
+package com.autandojam.service;
+
+import com.autandojam.audit.ActivityLogWriter;
+import com.autandojam.dto.ImportJobDTO;
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.entity.ActivityLog;
+import com.autandojam.entity.Category;
+import com.autandojam.entity.InventoryItem;
+import com.autandojam.entity.User;
+import com.autandojam.entity.UserRole;
+import com.autandojam.event.InventoryItemEvent;
+import com.autandojam.importer.CsvRecordReader;
+import com.autandojam.importer.ImportJob;
+import com.autandojam.repository.CategoryRepository;
+import com.autandojam.repository.InventoryItemRepository;
+import com.autandojam.repository.ItemImportBatchRepository;
+import com.autandojam.search.SkuIndex;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Bulk item import from CSV. The upload is spooled to a temp file and
+// processed by a single background thread, chunk by chunk, so memory holds
+// one chunk however large the file is:
+//   1. resolve the chunk's new category names in one query (cached for the
+//      rest of the import), then parse and validate its rows in parallel
+//   2. check SKUs against the catalogue (one query per chunk) and against
+//      earlier rows of the same file
+//   3. insert the valid rows in one transaction through JDBC batches, with
+//      their opening snapshots, summary deltas, audit logs and CREATED events
+// Rows that fail validation are reported with their row number and skipped;
+// the rest of the file still imports.
+@Service
+public class ItemImportService {
+    private static final Logger log = LoggerFactory.getLogger(ItemImportService.class);
+
+    private static final int MAX_RECORD_CHARS = 64 * 1024;
+    private static final int DEFAULT_REORDER_LEVEL = 5;
+
+    @Value("${inventory.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${inventory.import.validation-threads:4}")
+    private int validationThreads;
+
+    @Value("${inventory.import.queue-capacity:4}")
+    private int queueCapacity;
+
+    @Value("${inventory.import.max-errors:1000}")
+    private int maxErrors;
+
+    @Value("${inventory.import.job-ttl:24h}")
+    private Duration jobTtl;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    @Autowired
+    private ItemImportBatchRepository batchRepository;
+
+    @Autowired
+    private InventorySummaryService summaryService;
+
+    @Autowired
+    private ActivityLogWriter activityLogWriter;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor importPool;
+    private ForkJoinPool validationPool;
+    private Cache<String, ImportJob> jobs;
+    private TransactionTemplate transactionTemplate;
+    private Counter rowsImported;
+    private Counter rowsFailed;
+
+    @PostConstruct
+    public void init() {
+        // one import at a time: they share the batch path and the summary rows
+        AtomicInteger threads = new AtomicInteger();
+        importPool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "item-import-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        validationPool = new ForkJoinPool(validationThreads);
+
+        jobs = Caffeine.newBuilder()
+                .expireAfterWrite(jobTtl)
+                .build();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        rowsImported = meterRegistry.counter("inventory.import.rows", "outcome", "imported");
+        rowsFailed = meterRegistry.counter("inventory.import.rows", "outcome", "failed");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importPool.shutdownNow();
+        validationPool.shutdownNow();
+    }
+
+
+    // --------------------- JOBS -------------------------
+
+    // The request's upload is gone once it returns, so it is copied to a
+    // temp file first. Throws RejectedExecutionException when the queue is full.
+    public ImportJobDTO submit(String fileName, InputStream content, User user) throws IOException {
+        Path file = Files.createTempFile("item-import-", ".csv");
+        try (InputStream in = content) {
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(fileName, file, user.getUserId(), maxErrors);
+        jobs.put(job.getJobId(), job);
+        try {
+            importPool.execute(() -> run(job, user));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getJobId());
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    // jobs are visible to the user who started them and to admins
+    public ImportJobDTO getJob(String jobId, User user) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job == null) return null;
+        if (!job.getUserId().equals(user.getUserId()) && user.getRole() != UserRole.ADMIN) return null;
+        return job.toDTO();
+    }
+
+
+    // --------------------- PIPELINE -------------------------
+
+    private void run(ImportJob job, User user) {
+        job.started();
+        long started = System.currentTimeMillis();
+        // per import, so a category added between imports is picked up
+        Map<String, Optional<Category>> categories = new HashMap<>();
+        Set<String> fileSkus = new HashSet<>();
+
+        try (CsvRecordReader reader = new CsvRecordReader(
+                Files.newBufferedReader(job.getFile(), StandardCharsets.UTF_8), MAX_RECORD_CHARS)) {
+            List<String> header = reader.next();
+            if (header == null) throw new IllegalArgumentException("File is empty");
+            Columns columns = new Columns(header);
+
+            List<RawRow> chunk = new ArrayList<>(chunkSize);
+            long rowNumber = 0;
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                rowNumber++;
+                if (record.size() == 1 && record.get(0).isBlank()) continue;
+
+                chunk.add(new RawRow(rowNumber, record));
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk, columns, categories, fileSkus, user);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            importChunk(job, chunk, columns, categories, fileSkus, user);
+
+            job.completed();
+            ImportJobDTO result = job.toDTO();
+            log.info("Item import {} ({}) finished in {} ms: {} imported, {} failed", job.getJobId(),
+                    result.getFileName(), System.currentTimeMillis() - started,
+                    result.getRowsImported(), result.getRowsFailed());
+        } catch (IOException | IllegalArgumentException e) {
+            job.failed(e.getMessage());
+            log.warn("Item import {} stopped: {}", job.getJobId(), e.getMessage());
+        } catch (RuntimeException e) {
+            job.failed("Import failed: " + e.getMessage());
+            log.error("Item import {} failed", job.getJobId(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(job.getFile());
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", job.getFile());
+            }
+        }
+    }
+
+    private void importChunk(ImportJob job, List<RawRow> rows, Columns columns,
+                             Map<String, Optional<Category>> categories, Set<String> fileSkus, User user) {
+        if (rows.isEmpty()) return;
+        job.rowsRead(rows.size());
+
+        // parallel stream inside our own pool, so validation doesn't compete
+        // with other users of the common pool; order is kept
+        resolveCategories(rows, columns, categories);
+        LocalDateTime now = LocalDateTime.now();
+        List<ParsedRow> parsed = validationPool.submit(() -> rows.parallelStream()
+                        .map(row -> parse(row, columns, categories, user, now))
+                        .collect(Collectors.toList()))
+                .join();
+
+        List<ParsedRow> valid = new ArrayList<>(parsed.size());
+        for (ParsedRow row : parsed) {
+            if (row.error != null) fail(job, row.rowNumber, row.error);
+            else valid.add(row);
+        }
+        if (valid.isEmpty()) return;
+
+        Set<String> chunkSkus = new HashSet<>();
+        try {
+            Integer imported = transactionTemplate.execute(status -> insert(job, valid, fileSkus, chunkSkus, user, now));
+            // only SKUs that committed block later rows of the file
+            fileSkus.addAll(chunkSkus);
+            job.rowsImported(imported);
+            rowsImported.increment(imported);
+        } catch (DataAccessException e) {
+            // e.g. a SKU created through the API after the check above
+            String cause = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Item import {} chunk rolled back: {}", job.getJobId(), cause);
+            valid.forEach(row -> fail(job, row.rowNumber, "Not imported, batch rolled back: " + cause));
+        }
+    }
+
+    // returns the number of items inserted
+    private int insert(ImportJob job, List<ParsedRow> rows, Set<String> fileSkus, Set<String> chunkSkus,
+                       User user, LocalDateTime now) {
+        List<String> skus = rows.stream()
+                .map(row -> row.item.getSku())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Set<String> existing = skus.isEmpty() ? Set.of() : itemRepository.findExistingSkus(skus).stream()
+                .map(SkuIndex::normalize)
+                .collect(Collectors.toSet());
+
+        // sequential, so the first row carrying a SKU wins
+        List<InventoryItem> items = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            String sku = SkuIndex.normalize(row.item.getSku());
+            if (sku != null && existing.contains(sku)) {
+                fail(job, row.rowNumber, "SKU already exists: " + row.item.getSku());
+            } else if (sku != null && (fileSkus.contains(sku) || !chunkSkus.add(sku))) {
+                fail(job, row.rowNumber, "SKU appears on an earlier row: " + row.item.getSku());
+            } else {
+                items.add(row.item);
+            }
+        }
+        if (items.isEmpty()) return 0;
+
+        batchRepository.insertItems(items);
+        batchRepository.insertOpeningSnapshots(items, now);
+
+        List<ItemDTO> created = items.stream().map(item -> toDTO(item, user)).collect(Collectors.toList());
+        summaryService.itemsCreated(created);
+        activityLogWriter.submitAll(items.stream()
+                .map(item -> ActivityLog.builder()
+                        .user(user)
+                        .action("ITEM_IMPORTED")
+                        .entityType("InventoryItem")
+                        .entityId(item.getItemId())
+                        .description("Imported item: " + item.getItemName() + " (import " + job.getJobId() + ")")
+                        .createdAt(now)
+                        .build())
+                .collect(Collectors.toList()));
+        created.forEach(item -> eventPublisher.publishEvent(InventoryItemEvent.created(item)));
+        return items.size();
+    }
+
+    private void fail(ImportJob job, long rowNumber, String message) {
+        job.rowFailed(rowNumber, message);
+        rowsFailed.increment();
+    }
+
+
+    // --------------------- VALIDATION -------------------------
+
+    // before validation starts, so the parallel rows only read the cache;
+    // names compare case-insensitively, as the category_name column does
+    private void resolveCategories(List<RawRow> rows, Columns columns, Map<String, Optional<Category>> categories) {
+        Set<String> names = rows.stream()
+                .map(row -> columns.value(row, "categoryName"))
+                .filter(name -> name != null && !categories.containsKey(name))
+                .collect(Collectors.toSet());
+        if (names.isEmpty()) return;
+
+        Map<String, Category> found = categoryRepository.findByCategoryNameIn(names).stream()
+                .collect(Collectors.toMap(category -> category.getCategoryName().toLowerCase(Locale.ROOT),
+                        category -> category, (first, second) -> first));
+        names.forEach(name -> categories.put(name, Optional.ofNullable(found.get(name.toLowerCase(Locale.ROOT)))));
+    }
+
+    private ParsedRow parse(RawRow row, Columns columns, Map<String, Optional<Category>> categories,
+                            User user, LocalDateTime now) {
+        try {
+            String name = required(columns.value(row, "itemName"), "itemName");
+            maxLength(name, 150, "itemName");
+
+            String categoryName = required(columns.value(row, "categoryName"), "categoryName");
+            Category category = categories.get(categoryName)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown category: " + categoryName));
+
+            int quantity = nonNegativeInt(required(columns.value(row, "quantity"), "quantity"), "quantity");
+            BigDecimal unitPrice = price(required(columns.value(row, "unitPrice"), "unitPrice"));
+
+            String reorder = columns.value(row, "reorderLevel");
+            int reorderLevel = reorder == null ? DEFAULT_REORDER_LEVEL : nonNegativeInt(reorder, "reorderLevel");
+
+            String sku = columns.value(row, "sku");
+            maxLength(sku, 50, "sku");
+            String location = columns.value(row, "location");
+            maxLength(location, 100, "location");
+
+            InventoryItem item = InventoryItem.builder()
+                    .itemName(name)
+                    .category(category)
+                    .quantity(quantity)
+                    .unitPrice(unitPrice)
+                    .description(columns.value(row, "description"))
+                    .location(location)
+                    .sku(sku)
+                    .reorderLevel(reorderLevel)
+                    .addedBy(user)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build();
+            item.calculateTotalValue();
+            item.calculateShortfall();
+            return new ParsedRow(row.rowNumber, item, null);
+        } catch (IllegalArgumentException e) {
+            return new ParsedRow(row.rowNumber, null, e.getMessage());
+        }
+    }
+
+    private static String required(String value, String column) {
+        if (value == null) throw new IllegalArgumentException(column + " is required");
+        return value;
+    }
+
+    private static void maxLength(String value, int max, String column) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(column + " is longer than " + max + " characters");
+        }
+    }
+
+    private static int nonNegativeInt(String value, String column) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a whole number: " + value);
+        }
+        if (parsed < 0) throw new IllegalArgumentException(column + " must not be negative");
+        return parsed;
+    }
+
+    // unit_price is DECIMAL(10,2)
+    private static BigDecimal price(String value) {
+        BigDecimal price;
+        try {
+            price = new BigDecimal(value).setScale(2, RoundingMode.UNNECESSARY);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("unitPrice is not a number: " + value);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("unitPrice has more than 2 decimal places: " + value);
+        }
+        if (price.signum() < 0) throw new IllegalArgumentException("unitPrice must not be negative");
+        if (price.precision() > 10) throw new IllegalArgumentException("unitPrice is too large: " + value);
+        return price;
+    }
+
+    private static ItemDTO toDTO(InventoryItem item, User user) {
+        return ItemDTO.builder()
+                .itemId(item.getItemId())
+                .itemName(item.getItemName())
+                .categoryId(item.getCategory().getCategoryId())
+                .categoryName(item.getCategory().getCategoryName())
+                .quantity(item.getQuantity())
+                .unitPrice(item.getUnitPrice())
+                .totalValue(item.getTotalValue())
+                .description(item.getDescription())
+                .location(item.getLocation())
+                .sku(item.getSku())
+                .reorderLevel(item.getReorderLevel())
+                .shortfall(item.getShortfall())
+                .addedBy(user.getFullName())
+                .createdAt(item.getCreatedAt())
+                .updatedAt(item.getUpdatedAt())
+                .build();
+    }
+
+
+    // --------------------- CSV ROWS -------------------------
+
+    private static class RawRow {
+        final long rowNumber;
+        final List<String> fields;
+
+        RawRow(long rowNumber, List<String> fields) {
+            this.rowNumber = rowNumber;
+            this.fields = fields;
+        }
+    }
+
+    private static class ParsedRow {
+        final long rowNumber;
+        final InventoryItem item;
+        final String error;
+
+        ParsedRow(long rowNumber, InventoryItem item, String error) {
+            this.rowNumber = rowNumber;
+            this.item = item;
+            this.error = error;
+        }
+    }
+
+    // Header names are matched case-insensitively; unknown columns are ignored,
+    // so a file from GET /items/export?format=csv can be imported as is.
+    private static class Columns {
+        private static final List<String> REQUIRED = List.of("itemName", "categoryName", "quantity", "unitPrice");
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        Columns(List<String> header) {
+            for (int i = 0; i < header.size(); i++) {
+                indexes.putIfAbsent(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            List<String> missing = REQUIRED.stream()
+                    .filter(column -> !indexes.containsKey(column.toLowerCase(Locale.ROOT)))
+                    .collect(Collectors.toList());
+            if (!missing.isEmpty()) {
+                throw new IllegalArgumentException("Missing required columns: " + String.join(", ", missing));
+            }
+        }
+
+        // trimmed value, or null when the column is absent or the cell is empty
+        String value(RawRow row, String column) {
+            Integer index = indexes.get(column.toLowerCase(Locale.ROOT));
+            if (index == null || index >= row.fields.size()) return null;
+            String value = row.fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
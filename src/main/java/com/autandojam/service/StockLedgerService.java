@@ -0,0 +1,212 @@
+package com.autandojam.service;
+
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.dto.StockLevelDTO;
+import com.autandojam.entity.InventoryItem;
+import com.autandojam.entity.StockSnapshot;
+import com.autandojam.repository.ArchivedStockTransactionRepository;
+import com.autandojam.repository.InventoryItemRepository;
+import com.autandojam.repository.StockSnapshotRepository;
+import com.autandojam.repository.StockTransactionRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Point-in-time stock levels from the stock_transactions ledger. Each item
+// gets a snapshot when it is created, and the snapshot job adds one whenever
+// an item has built up enough ledger rows since its last, so a lookup
+// replays at most the rows between two snapshots.
+@Service
+public class StockLedgerService {
+    private static final Logger log = LoggerFactory.getLogger(StockLedgerService.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Value("${inventory.snapshots.min-transactions:50}")
+    private int minTransactions;
+
+    @Autowired
+    private StockSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private StockTransactionRepository transactionRepository;
+
+    @Autowired
+    private ArchivedStockTransactionRepository archivedTransactionRepository;
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate chunkTemplate;
+
+    // ledger position the snapshot job has looked at; -1 until the first run
+    private int watermark = -1;
+
+
+    @PostConstruct
+    public void init() {
+        // each statement must see the latest commits, not a view from the
+        // start of the chunk, or the locked quantity and ledger position drift
+        chunkTemplate = new TransactionTemplate(transactionManager);
+        chunkTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+
+    // --------------------- QUERY -------------------------
+
+    @Transactional(readOnly = true)
+    public StockLevelDTO getStockAt(Integer itemId, LocalDateTime at) {
+        Optional<StockSnapshot> before = snapshotRepository
+                .findFirstByItemItemIdAndTakenAtLessThanEqualOrderByTakenAtDesc(itemId, at);
+        Optional<StockSnapshot> after = snapshotRepository
+                .findFirstByItemItemIdAndTakenAtAfterOrderByTakenAtAsc(itemId, at);
+        int upToId = after.map(StockSnapshot::getLastTransactionId).orElse(Integer.MAX_VALUE);
+
+        // forward from the snapshot before, stopping at the next one
+        if (before.isPresent()) {
+            StockSnapshot snapshot = before.get();
+            long change = changesUpTo(itemId, snapshot.getLastTransactionId(), upToId, at);
+            return level(itemId, at, snapshot.getQuantity() + change, snapshot.getTakenAt());
+        }
+
+        // nothing recorded before `at`, so check the item existed by then
+        ItemDTO item = itemRepository.findItemDTOById(itemId).orElse(null);
+        if (item == null) return null;
+        if (item.getCreatedAt() != null && item.getCreatedAt().isAfter(at)) {
+            return level(itemId, at, 0, null);
+        }
+
+        // backward from the snapshot after (items from before snapshots
+        // existed), or from the live row when there is none yet
+        if (after.isPresent()) {
+            StockSnapshot snapshot = after.get();
+            long change = changesAfter(itemId, upToId, at);
+            return level(itemId, at, snapshot.getQuantity() - change, snapshot.getTakenAt());
+        }
+        long change = changesAfter(itemId, Integer.MAX_VALUE, at);
+        return level(itemId, at, item.getQuantity() - change, null);
+    }
+
+    // the replayed range can reach back past the archiver's cutoff, so both tables are summed
+    private long changesUpTo(Integer itemId, Integer afterId, Integer upToId, LocalDateTime at) {
+        return transactionRepository.sumChangesUpTo(itemId, afterId, upToId, at)
+                + archivedTransactionRepository.sumChangesUpTo(itemId, afterId, upToId, at);
+    }
+
+    private long changesAfter(Integer itemId, Integer upToId, LocalDateTime at) {
+        return transactionRepository.sumChangesAfter(itemId, upToId, at)
+                + archivedTransactionRepository.sumChangesAfter(itemId, upToId, at);
+    }
+
+    private StockLevelDTO level(Integer itemId, LocalDateTime at, long quantity, LocalDateTime snapshotTakenAt) {
+        return StockLevelDTO.builder()
+                .itemId(itemId)
+                .at(at)
+                .quantity((int) quantity)
+                .snapshotTakenAt(snapshotTakenAt)
+                .build();
+    }
+
+
+    // --------------------- SNAPSHOTS -------------------------
+
+    // new items have no ledger rows yet, so their opening quantity is the baseline
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOpeningSnapshot(InventoryItem item) {
+        snapshotRepository.save(StockSnapshot.builder()
+                .item(item)
+                .quantity(item.getQuantity())
+                .lastTransactionId(0)
+                .takenAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.snapshots.interval:PT15M}",
+            initialDelayString = "${inventory.snapshots.initial-delay:PT1M}")
+    public void takeSnapshots() {
+        int upToId = transactionRepository.findMaxTransactionId();
+        // the first run after startup looks at the whole ledger once; later
+        // runs only at items with rows added since the previous run
+        boolean firstRun = watermark < 0;
+        int from = firstRun ? 0 : watermark;
+
+        Set<Integer> candidates = new TreeSet<>(transactionRepository.findItemIdsWithTransactionsBetween(from, upToId));
+        Set<Integer> baselines = firstRun
+                ? new TreeSet<>(snapshotRepository.findItemIdsWithoutSnapshot())
+                : Collections.emptySet();
+        candidates.addAll(baselines);
+
+        int taken = 0;
+        boolean failed = false;
+        List<Integer> ids = new ArrayList<>(candidates);
+        for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(i, Math.min(i + CHUNK_SIZE, ids.size()));
+            try {
+                Integer count = chunkTemplate.execute(status -> snapshotChunk(chunk, baselines));
+                taken += count == null ? 0 : count;
+            } catch (RuntimeException e) {
+                // typically a lock timeout against a large stock movement; the
+                // items stay behind the watermark and are retried next run
+                failed = true;
+                log.warn("Stock snapshot chunk of {} items failed: {}", chunk.size(), e.getMessage());
+            }
+        }
+
+        if (!failed) watermark = upToId;
+        if (taken > 0) {
+            log.info("Took {} stock snapshots up to transaction {}", taken, upToId);
+        }
+    }
+
+    private int snapshotChunk(List<Integer> itemIds, Set<Integer> baselines) {
+        List<Integer> due = new ArrayList<>();
+        for (Integer itemId : itemIds) {
+            if (baselines.contains(itemId)) due.add(itemId);
+        }
+        for (Object[] row : transactionRepository.findUnsnapshottedActivity(itemIds)) {
+            Integer itemId = (Integer) row[0];
+            if (((Number) row[1]).longValue() >= minTransactions && !baselines.contains(itemId)) {
+                due.add(itemId);
+            }
+        }
+        if (due.isEmpty()) return 0;
+
+        // lock first, then read the ledger position the locked quantity reflects
+        List<InventoryItem> items = itemRepository.lockForSnapshot(due);
+        // an item whose live rows were all archived still has a ledger position
+        Map<Integer, Integer> latest = new HashMap<>();
+        for (Object[] row : archivedTransactionRepository.findLatestTransactionIds(due)) {
+            latest.put((Integer) row[0], (Integer) row[1]);
+        }
+        for (Object[] row : transactionRepository.findLatestTransactionIds(due)) {
+            latest.merge((Integer) row[0], (Integer) row[1], Math::max);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        snapshotRepository.saveAll(items.stream()
+                .map(item -> StockSnapshot.builder()
+                        .item(item)
+                        .quantity(item.getQuantity())
+                        .lastTransactionId(latest.getOrDefault(item.getItemId(), 0))
+                        .takenAt(now)
+                        .build())
+                .collect(Collectors.toList()));
+        return items.size();
+    }
+}
@@ -1,10 +1,15 @@
 package com.autandojam.service;
 
+import com.autandojam.dto.ActivityLogDTO;
 import com.autandojam.entity.User;
+import com.autandojam.repository.LedgerHistoryRepository;
 import com.autandojam.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 
 @Service
@@ -15,6 +20,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private LedgerHistoryRepository ledgerHistoryRepository;
+
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -27,6 +35,11 @@ public class UserService {
         return userRepository.findById(userId).orElse(null);
     }
 
+    @Transactional(readOnly = true)
+    public Page<ActivityLogDTO> getActivity(Integer userId, Pageable pageable) {
+        return ledgerHistoryRepository.findActivityByUser(userId, pageable);
+    }
+
     public boolean validatePassword(String rawPassword, String encodedPassword) {
         return passwordEncoder.matches(rawPassword, encodedPassword);
     }
@@ -0,0 +1,216 @@
+package com.autandojam.stream;
+
+import com.autandojam.event.InventoryItemEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Fans committed item changes out to SSE clients. The publishing thread only
+// serialises the event once and offers it to each matching subscriber's
+// bounded queue; a small dispatch pool does the socket writes. A client that
+// can't keep up loses events instead of slowing down stock updates.
+@Component
+public class StockEventBroadcaster {
+    private static final Logger log = LoggerFactory.getLogger(StockEventBroadcaster.class);
+
+    @Value("${inventory.stream.max-clients:200}")
+    private int maxClients;
+
+    @Value("${inventory.stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${inventory.stream.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${inventory.stream.heartbeat-interval:20s}")
+    private Duration heartbeatInterval;
+
+    @Value("${inventory.stream.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventIds = new AtomicLong();
+
+    private ObjectWriter payloadWriter;
+    private ExecutorService dispatcher;
+    private ScheduledExecutorService heartbeat;
+    private Counter sentCounter;
+    private Counter droppedCounter;
+
+    @PostConstruct
+    public void start() {
+        // the app-wide mapper indents, which would split every payload over dozens of data: lines
+        payloadWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+
+        AtomicInteger threads = new AtomicInteger();
+        dispatcher = Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat,
+                heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+
+        meterRegistry.gauge("inventory.stream.clients", subscribers, Set::size);
+        sentCounter = meterRegistry.counter("inventory.stream.events.sent");
+        droppedCounter = meterRegistry.counter("inventory.stream.events.dropped");
+    }
+
+    @PreDestroy
+    public void stop() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // returns null when the client limit is reached; empty filters match everything
+    public SseEmitter subscribe(Collection<Integer> categoryIds, Collection<Integer> itemIds, boolean alertsOnly) {
+        if (subscribers.size() >= maxClients) return null;
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter,
+                categoryIds == null ? Set.of() : Set.copyOf(categoryIds),
+                itemIds == null ? Set.of() : Set.copyOf(itemIds),
+                alertsOnly,
+                new ArrayBlockingQueue<>(queueCapacity));
+
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        enqueue(subscriber, SseEmitter.event().comment("connected").build());
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemChanged(InventoryItemEvent event) {
+        if (subscribers.isEmpty() || event.getItem() == null) return;
+
+        StockStreamMessage.Alert alert = null;
+        if (event.crossedIntoLowStock() && event.getType() != InventoryItemEvent.Type.DELETED) {
+            alert = StockStreamMessage.Alert.LOW_STOCK;
+        } else if (event.crossedOutOfLowStock()) {
+            alert = StockStreamMessage.Alert.RESTOCKED;
+        }
+
+        String json;
+        try {
+            json = payloadWriter.writeValueAsString(new StockStreamMessage(event.getType(), event.getItemId(),
+                    alert, event.getPreviousShortfall(), event.getItem()));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialise stream event for item {}", event.getItemId(), e);
+            return;
+        }
+
+        // built once and shared by every subscriber
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event()
+                .id(String.valueOf(eventIds.incrementAndGet()))
+                .name(alert != null ? "alert" : "stock")
+                .data(json, MediaType.APPLICATION_JSON)
+                .build();
+
+        Integer categoryId = event.getItem().getCategoryId();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(categoryId, event.getItemId(), alert != null)) {
+                enqueue(subscriber, frame);
+            }
+        }
+    }
+
+    private void sendHeartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("heartbeat").build();
+        subscribers.forEach(subscriber -> enqueue(subscriber, frame));
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            droppedCounter.increment();
+            return;
+        }
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        Set<ResponseBodyEmitter.DataWithMediaType> frame;
+        while ((frame = subscriber.queue.poll()) != null) {
+            try {
+                subscriber.emitter.send(frame);
+                sentCounter.increment();
+            } catch (IOException | IllegalStateException e) {
+                // client went away; the emitter callbacks may not fire for a broken pipe
+                subscribers.remove(subscriber);
+                subscriber.queue.clear();
+                subscriber.emitter.completeWithError(e);
+                break;
+            }
+        }
+        subscriber.scheduled.set(false);
+
+        // an event offered between the last poll and the reset would otherwise wait for the next one
+        if (!subscriber.queue.isEmpty() && subscribers.contains(subscriber)
+                && subscriber.scheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter,
+                              Set<Integer> categoryIds,
+                              Set<Integer> itemIds,
+                              boolean alertsOnly,
+                              BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue,
+                              AtomicBoolean scheduled) {
+
+        Subscriber(SseEmitter emitter, Set<Integer> categoryIds, Set<Integer> itemIds, boolean alertsOnly,
+                   BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this(emitter, categoryIds, itemIds, alertsOnly, queue, new AtomicBoolean());
+        }
+
+        boolean matches(Integer categoryId, Integer itemId, boolean isAlert) {
+            if (alertsOnly && !isAlert) return false;
+            if (!categoryIds.isEmpty() && !categoryIds.contains(categoryId)) return false;
+            return itemIds.isEmpty() || itemIds.contains(itemId);
+        }
+    }
+}
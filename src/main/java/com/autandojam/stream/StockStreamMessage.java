@@ -0,0 +1,21 @@
+package com.autandojam.stream;
+
+import com.autandojam.dto.ItemDTO;
+import com.autandojam.event.InventoryItemEvent;
+import lombok.*;
+
+// JSON payload of one event on GET /items/stream
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStreamMessage {
+    public enum Alert {
+        LOW_STOCK, RESTOCKED
+    }
+
+    private InventoryItemEvent.Type type;
+    private Integer itemId;
+    private Alert alert; // null unless the change crossed the reorder level
+    private Integer previousShortfall;
+    private ItemDTO item;
+}
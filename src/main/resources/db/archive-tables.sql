@@ -0,0 +1,33 @@
+-- Archive tables for rows moved out by LedgerArchiver: no foreign keys,
+-- compressed. MySQL only; run by ArchiveTableMigration on every startup, so
+-- every statement here must be safe to repeat.
+
+CREATE TABLE IF NOT EXISTS stock_transactions_archive (
+    transaction_id INT PRIMARY KEY,
+    item_id INT NOT NULL,
+    transaction_type ENUM('IN', 'OUT', 'ADJUSTMENT') NOT NULL,
+    quantity_change INT NOT NULL,
+    reference_number VARCHAR(50),
+    notes TEXT,
+    performed_by INT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    INDEX idx_tx_archive_item (item_id),
+    INDEX idx_tx_archive_item_date (item_id, created_at),
+    INDEX idx_tx_archive_date (created_at)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS activity_logs_archive (
+    log_id INT PRIMARY KEY,
+    user_id INT NOT NULL,
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id INT,
+    description TEXT,
+    ip_address VARCHAR(45),
+    created_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    INDEX idx_log_archive_user_date (user_id, created_at),
+    INDEX idx_log_archive_action_date (action, created_at),
+    INDEX idx_log_archive_date (created_at)
+) ENGINE=InnoDB ROW_FORMAT=COMPRESSED DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -39,6 +39,7 @@ CREATE TABLE IF NOT EXISTS inventory_items (
     location VARCHAR(100),
     sku VARCHAR(50) UNIQUE,
     reorder_level INT DEFAULT 5,
+    shortfall INT,
     added_by INT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -46,7 +47,9 @@ CREATE TABLE IF NOT EXISTS inventory_items (
     FOREIGN KEY (added_by) REFERENCES users(user_id),
     INDEX idx_item_name (item_name),
     INDEX idx_category (category_id),
+    INDEX idx_category_item_name (category_id, item_name),
     INDEX idx_quantity (quantity),
+    INDEX idx_shortfall (shortfall),
     INDEX idx_sku (sku)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
@@ -64,7 +67,19 @@ CREATE TABLE IF NOT EXISTS stock_transactions (
     FOREIGN KEY (performed_by) REFERENCES users(user_id),
     INDEX idx_item (item_id),
     INDEX idx_type (transaction_type),
-    INDEX idx_date (created_at)
+    INDEX idx_date (created_at),
+    INDEX idx_item_date (item_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Stock Snapshots Table (item quantity as of a ledger position)
+CREATE TABLE IF NOT EXISTS stock_snapshots (
+    snapshot_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    item_id INT NOT NULL,
+    quantity INT NOT NULL,
+    last_transaction_id INT NOT NULL,
+    taken_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (item_id) REFERENCES inventory_items(item_id) ON DELETE CASCADE,
+    INDEX idx_snapshot_item_taken (item_id, taken_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Activity Logs Table
@@ -80,9 +95,31 @@ CREATE TABLE IF NOT EXISTS activity_logs (
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE,
     INDEX idx_user (user_id),
     INDEX idx_action (action),
-    INDEX idx_date (created_at)
+    INDEX idx_date (created_at),
+    INDEX idx_user_date (user_id, created_at),
+    INDEX idx_action_date (action, created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Archive Tables: db/archive-tables.sql (applied at startup by ArchiveTableMigration)
+
+-- Inventory Summaries Table (running valuation per category / location)
+CREATE TABLE IF NOT EXISTS inventory_summaries (
+    summary_id INT PRIMARY KEY AUTO_INCREMENT,
+    dimension VARCHAR(20) NOT NULL,
+    dimension_key VARCHAR(100) NOT NULL,
+    item_count BIGINT NOT NULL,
+    total_quantity BIGINT NOT NULL,
+    total_value DECIMAL(19, 2) NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    UNIQUE KEY uk_summary_dimension_key (dimension, dimension_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Replica lag probe: the primary rewrites this row, the replica's copy trails it
+CREATE TABLE IF NOT EXISTS replication_heartbeat (
+    id INT PRIMARY KEY,
+    beat_at DATETIME(6) NOT NULL
+);
+
 -- Insert Default Categories
 INSERT INTO categories (category_name, description) VALUES
 ('Equipment', 'Laboratory and farming equipment'),
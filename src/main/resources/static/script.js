@@ -160,14 +160,14 @@ async function loadDashboard() {
   try {
     // Fetch stats
     const itemsResponse = await fetchAPI(`${API_BASE_URL}/items?page=0&size=1`)
-    const lowStockResponse = await fetchAPI(`${API_BASE_URL}/items/low-stock`)
+    const lowStockResponse = await fetchAPI(`${API_BASE_URL}/items/low-stock?page=0&size=1`)
 
     if (itemsResponse.success) {
       document.getElementById("totalItems").textContent = itemsResponse.data.totalElements || 0
     }
 
     if (lowStockResponse.success) {
-      document.getElementById("lowStockCount").textContent = lowStockResponse.data.length || 0
+      document.getElementById("lowStockCount").textContent = lowStockResponse.data.totalElements || 0
     }
 
     loadCharts()
@@ -407,13 +407,13 @@ async function loadCategories(selectId) {
 // Low Stock Items
 async function loadLowStockItems() {
   try {
-    const response = await fetchAPI(`${API_BASE_URL}/items/low-stock`)
+    const response = await fetchAPI(`${API_BASE_URL}/items/low-stock?page=0&size=100`)
     if (!response.success) return
 
     const tbody = document.querySelector("#lowStockTable tbody")
     tbody.innerHTML = ""
 
-    response.data.forEach((item) => {
+    response.data.content.forEach((item) => {
       const row = tbody.insertRow()
       row.innerHTML = `
                 <td>${item.itemName}</td>
@@ -591,12 +591,12 @@ function showAlert(type, message) {
 // Additional Export Functions
 async function exportLowStockReport(filename) {
   try {
-    const response = await fetchAPI(`${API_BASE_URL}/items/low-stock`)
+    const response = await fetchAPI(`${API_BASE_URL}/items/low-stock?page=0&size=10000`)
     if (!response.success) return
 
     let csv = "Item Name,Category,Current Quantity,Reorder Level,Shortage\n"
 
-    response.data.forEach((item) => {
+    response.data.content.forEach((item) => {
       const shortage = item.reorderLevel - item.quantity
       csv += `"${item.itemName}","${item.categoryName}",${item.quantity},${item.reorderLevel},${shortage}\n`
     })
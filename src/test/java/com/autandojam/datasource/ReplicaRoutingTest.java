@@ -0,0 +1,104 @@
+package com.autandojam.datasource;
+
+import com.autandojam.security.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two independent H2 databases stand in for the primary and the replica;
+// DATABASE() tells which one served a transaction.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "inventory.datasource.replica.enabled=true",
+        "inventory.datasource.replica.url=jdbc:h2:mem:routing_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "inventory.datasource.replica.lag-probe=none",
+        "inventory.datasource.replica.create-schema=true",
+        "inventory.datasource.replica.read-your-writes=5s"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+    private static final String PRIMARY = "routing_primary";
+    private static final String REPLICA = "routing_replica";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        signIn(101);
+        assertThat(databaseIn(true)).isEqualToIgnoringCase(REPLICA);
+    }
+
+    @Test
+    void readWriteTransactionGoesToPrimary() {
+        signIn(102);
+        assertThat(databaseIn(false)).isEqualToIgnoringCase(PRIMARY);
+    }
+
+    @Test
+    void readsStayOnPrimaryAfterAWrite() {
+        signIn(103);
+        assertThat(databaseIn(true)).isEqualToIgnoringCase(REPLICA);
+
+        writeOnce();
+        assertThat(databaseIn(true)).isEqualToIgnoringCase(PRIMARY);
+
+        // only the user who wrote is kept on the primary
+        signIn(104);
+        assertThat(databaseIn(true)).isEqualToIgnoringCase(REPLICA);
+    }
+
+    @Test
+    void rolledBackWriteDoesNotPinReadsToPrimary() {
+        signIn(105);
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        readWrite.executeWithoutResult(status -> {
+            databaseOf();
+            status.setRollbackOnly();
+        });
+
+        assertThat(databaseIn(true)).isEqualToIgnoringCase(REPLICA);
+    }
+
+    private String databaseIn(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> databaseOf());
+    }
+
+    private void writeOnce() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO categories (category_name, created_at, updated_at) "
+                        + "VALUES (?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", "Routing " + System.nanoTime()));
+    }
+
+    private String databaseOf() {
+        return jdbcTemplate.queryForObject("SELECT DATABASE()", String.class);
+    }
+
+    private void signIn(int userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId, "STAFF");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user, null, List.of(new SimpleGrantedAuthority("ROLE_STAFF"))));
+    }
+}
@@ -0,0 +1,146 @@
+package com.autandojam.reactive;
+
+import com.autandojam.dto.ItemDTO;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactories;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The reactive listings against H2 over R2DBC, with pages small enough that
+// every listing spans several page queries.
+class ReactiveItemHandlerTest {
+    private static final int ITEMS = 10;
+    private static final int PAGE_SIZE = 3;
+    private static final int MAX_LIMIT = 7;
+
+    private ConnectionPool pool;
+    private ReactiveItemRepository itemRepository;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(
+                        "r2dbc:h2:mem:///reactive-" + UUID.randomUUID() + "?options=DB_CLOSE_DELAY=-1;MODE=MySQL"))
+                .maxSize(2)
+                .build());
+        createCatalogue(DatabaseClient.create(pool));
+
+        itemRepository = new ReactiveItemRepository(pool, 2, PAGE_SIZE);
+        ReactiveItemHandler handler = new ReactiveItemHandler(itemRepository, MAX_LIMIT);
+        client = WebTestClient.bindToRouterFunction(RouterFunctions.route()
+                        .GET("/items", handler::getAllItems)
+                        .GET("/items/low-stock", handler::getLowStockItems)
+                        .GET("/items/category/{categoryId}", handler::getItemsByCategory)
+                        .build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.destroy();
+    }
+
+    @Test
+    void listingIsCappedAtMaxLimit() {
+        assertThat(itemIds("/items")).containsExactly(1, 2, 3, 4, 5, 6, 7);
+        assertThat(itemIds("/items?limit=100")).hasSize(MAX_LIMIT);
+    }
+
+    @Test
+    void listingContinuesAfterAnItemId() {
+        assertThat(itemIds("/items?after=6")).containsExactly(7, 8, 9, 10);
+        assertThat(itemIds("/items?after=2&limit=4")).containsExactly(3, 4, 5, 6);
+    }
+
+    @Test
+    void categoryListingPagesThroughTheFilter() {
+        // even item ids are in category 2
+        assertThat(itemIds("/items/category/2")).containsExactly(2, 4, 6, 8, 10);
+    }
+
+    @Test
+    void lowStockPagesKeepShortfallOrderAcrossTies() {
+        // shortfall is item_id % 4 for every item, so ties straddle page boundaries
+        assertThat(itemIds("/items/low-stock")).containsExactly(3, 7, 2, 6, 10, 1, 5);
+    }
+
+    @Test
+    void connectionIsReleasedWhileTheClientIsSlow() throws InterruptedException {
+        List<ItemDTO> received = new CopyOnWriteArrayList<>();
+        BaseSubscriber<ItemDTO> slowClient = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ItemDTO item) {
+                received.add(item);
+            }
+        };
+        itemRepository.findItemDTOsAfterId(0, ITEMS).subscribe(slowClient);
+
+        PoolMetrics metrics = pool.getMetrics().orElseThrow();
+        for (int i = 0; i < 50 && (received.isEmpty() || metrics.acquiredSize() > 0); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(received).hasSize(1);
+        assertThat(metrics.acquiredSize()).isZero();
+
+        slowClient.request(ITEMS);
+        for (int i = 0; i < 50 && received.size() < ITEMS; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(received).extracting(ItemDTO::getItemId)
+                .containsExactlyElementsOf(IntStream.rangeClosed(1, ITEMS).boxed().toList());
+    }
+
+    private List<Integer> itemIds(String uri) {
+        return client.get().uri(uri).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ItemDTO.class)
+                .returnResult()
+                .getResponseBody()
+                .stream()
+                .map(ItemDTO::getItemId)
+                .toList();
+    }
+
+    private static void createCatalogue(DatabaseClient db) {
+        db.sql("CREATE TABLE categories (category_id INT PRIMARY KEY, category_name VARCHAR(100))").then().block();
+        db.sql("CREATE TABLE users (user_id INT PRIMARY KEY, full_name VARCHAR(100))").then().block();
+        db.sql("CREATE TABLE inventory_items (item_id INT PRIMARY KEY, item_name VARCHAR(100), category_id INT, "
+                + "quantity INT, unit_price DECIMAL(10,2), total_value DECIMAL(12,2), description VARCHAR(255), "
+                + "location VARCHAR(100), sku VARCHAR(50), reorder_level INT, shortfall INT, added_by INT, "
+                + "created_at TIMESTAMP, updated_at TIMESTAMP)").then().block();
+
+        db.sql("INSERT INTO categories VALUES (1, 'Odd'), (2, 'Even')").then().block();
+        db.sql("INSERT INTO users VALUES (1, 'Test User')").then().block();
+        for (int id = 1; id <= ITEMS; id++) {
+            db.sql("INSERT INTO inventory_items VALUES (:id, :name, :categoryId, 1, 1.00, 1.00, NULL, NULL, "
+                            + ":sku, 1, :shortfall, 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")
+                    .bind("id", id)
+                    .bind("name", "Item " + id)
+                    .bind("categoryId", id % 2 == 0 ? 2 : 1)
+                    .bind("sku", "SKU-" + id)
+                    .bind("shortfall", id % 4)
+                    .then()
+                    .block();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.autandojam.service;
+
+import com.autandojam.dto.BulkStockResult;
+import com.autandojam.dto.StockMovementLine;
+import com.autandojam.dto.StockUpdateResult;
+import com.autandojam.entity.*;
+import com.autandojam.repository.CategoryRepository;
+import com.autandojam.repository.InventoryItemRepository;
+import com.autandojam.repository.StockTransactionRepository;
+import com.autandojam.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 64 writers hit one item at once; the guarded UPDATEs must neither lose an
+// increment nor let two checkouts spend the same unit.
+@SpringBootTest
+@ActiveProfiles("test")
+class StockConcurrencyTest {
+    private static final int WRITERS = 64;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryItemRepository itemRepository;
+
+    @Autowired
+    private StockTransactionRepository transactionRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        user = userRepository.save(User.builder()
+                .username("stress-" + suffix)
+                .email("stress-" + suffix + "@example.com")
+                .password("x")
+                .fullName("Stress Writer")
+                .role(UserRole.STAFF)
+                .isActive(true)
+                .build());
+        category = categoryRepository.save(Category.builder()
+                .categoryName("Stress " + suffix)
+                .build());
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        InventoryItem item = createItem(49);
+
+        List<StockUpdateResult> results = runConcurrently(() ->
+                inventoryService.reduceStock(item.getItemId(), 1, null, user));
+
+        assertThat(results).filteredOn(r -> r == StockUpdateResult.APPLIED).hasSize(49);
+        assertThat(results).filteredOn(r -> r == StockUpdateResult.INSUFFICIENT_STOCK).hasSize(WRITERS - 49);
+
+        InventoryItem after = itemRepository.findById(item.getItemId()).orElseThrow();
+        assertThat(after.getQuantity()).isZero();
+        assertThat(after.getTotalValue()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(transactionRepository.findAll())
+                .filteredOn(tx -> tx.getItem().getItemId().equals(item.getItemId()))
+                .hasSize(49);
+    }
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws Exception {
+        InventoryItem item = createItem(10);
+
+        List<StockUpdateResult> results = runConcurrently(() ->
+                inventoryService.addStock(item.getItemId(), 2, null, user));
+
+        assertThat(results).containsOnly(StockUpdateResult.APPLIED);
+        InventoryItem after = itemRepository.findById(item.getItemId()).orElseThrow();
+        assertThat(after.getQuantity()).isEqualTo(10 + 2 * WRITERS);
+        assertThat(after.getTotalValue()).isEqualByComparingTo(after.getUnitPrice().multiply(BigDecimal.valueOf(after.getQuantity())));
+    }
+
+    @Test
+    void editsDoNotOverwriteConcurrentMovements() throws Exception {
+        InventoryItem item = createItem(10);
+
+        // every other writer edits the item's description while the rest add stock
+        AtomicInteger writers = new AtomicInteger();
+        List<StockUpdateResult> results = runConcurrently(() -> {
+            if (writers.getAndIncrement() % 2 == 0) {
+                return inventoryService.addStock(item.getItemId(), 1, null, user);
+            }
+            inventoryService.updateItem(item.getItemId(), InventoryItem.builder()
+                    .itemName(item.getItemName())
+                    .category(category)
+                    .description("Edited " + writers.get())
+                    .unitPrice(item.getUnitPrice())
+                    .reorderLevel(item.getReorderLevel())
+                    .build(), user);
+            return StockUpdateResult.APPLIED;
+        });
+
+        assertThat(results).containsOnly(StockUpdateResult.APPLIED);
+        InventoryItem after = itemRepository.findById(item.getItemId()).orElseThrow();
+        assertThat(after.getQuantity()).isEqualTo(10 + WRITERS / 2);
+        assertThat(after.getTotalValue()).isEqualByComparingTo(after.getUnitPrice().multiply(BigDecimal.valueOf(after.getQuantity())));
+    }
+
+    @Test
+    void bulkNotesInOppositeOrderDoNotDeadlock() throws Exception {
+        InventoryItem first = createItem(0);
+        InventoryItem second = createItem(0);
+
+        AtomicInteger writers = new AtomicInteger();
+        List<BulkStockResult> results = runConcurrently(() -> {
+            List<StockMovementLine> lines = new ArrayList<>(List.of(
+                    new StockMovementLine(first.getItemId(), 1, null),
+                    new StockMovementLine(second.getItemId(), 1, null)));
+            if (writers.getAndIncrement() % 2 == 0) Collections.reverse(lines);
+            return inventoryService.applyBulkStock(TransactionType.IN, lines, user);
+        });
+
+        assertThat(results).allSatisfy(result -> assertThat(result.getAppliedLines()).isEqualTo(2));
+        assertThat(itemRepository.findById(first.getItemId()).orElseThrow().getQuantity()).isEqualTo(WRITERS);
+        assertThat(itemRepository.findById(second.getItemId()).orElseThrow().getQuantity()).isEqualTo(WRITERS);
+    }
+
+    private InventoryItem createItem(int quantity) {
+        InventoryItem item = InventoryItem.builder()
+                .itemName("Stress item")
+                .category(category)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal("2.50"))
+                .reorderLevel(5)
+                .build();
+        inventoryService.createItem(item, user);
+        return item;
+    }
+
+    // all writers are released together so their UPDATEs contend for the row
+    private <T> List<T> runConcurrently(Callable<T> writer) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < WRITERS; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return writer.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(60, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}